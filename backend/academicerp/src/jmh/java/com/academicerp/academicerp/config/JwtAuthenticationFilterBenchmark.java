@@ -0,0 +1,74 @@
+package com.academicerp.academicerp.config;
+
+import com.academicerp.academicerp.service.EmployeeService;
+import com.academicerp.academicerp.service.JwtFixtures;
+import com.academicerp.academicerp.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What authentication adds to every API request: {@code doFilterInternal} with a bearer
+ * token already in the verified-token cache, as on all but a token's first request. The
+ * revocation repository is a mock and the rest of the chain does nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+    
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+    
+    @Setup
+    public void setUp() throws Exception {
+        JwtService jwtService = JwtFixtures.newJwtService();
+        filter = new JwtAuthenticationFilter(jwtService, new SimpleMeterRegistry());
+        String token = jwtService.generateToken("outreach@academicerp.com", null,
+                List.of(EmployeeService.ROLE_EMPLOYEE, "OUTREACH"));
+        
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/organisations");
+        authenticatedRequest.setServletPath("/api/organisations");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + token);
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/organisations");
+        anonymousRequest.setServletPath("/api/organisations");
+        response = new MockHttpServletResponse();
+    }
+    
+    @Benchmark
+    public Object bearerToken() throws Exception {
+        // SecurityContextHolderFilter clears the context after each request
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(authenticatedRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+    
+    @Benchmark
+    public Object noToken() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(anonymousRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
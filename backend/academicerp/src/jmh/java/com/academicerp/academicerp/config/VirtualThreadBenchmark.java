@@ -0,0 +1,121 @@
+package com.academicerp.academicerp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Platform versus virtual threads for 10k concurrent request-style tasks that block on I/O
+ * and then briefly on a 20-connection pool. The virtual models need a Java 21+ runtime.
+ * {@code failed} counts requests that timed out waiting for a connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+    
+    private static final int REQUESTS = 10_000;
+    private static final int POOL_SIZE = 20;
+    // Tomcat's default server.tomcat.threads.max
+    private static final int PLATFORM_THREADS = 200;
+    private static final long IO_MILLIS = 20;
+    private static final long DB_MILLIS = 2;
+    
+    @Param({"platform", "virtual", "virtual-limited"})
+    public String threadModel;
+    
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public int failed;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            failed = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        if (!"platform".equals(threadModel)) {
+            // Fail the trial up front on Java 17 rather than in the middle of a run
+            virtualThreadPerTask().shutdown();
+        }
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(POOL_SIZE);
+        pool.setMinimumIdle(POOL_SIZE);
+        // Short, so a stampede shows up as failures rather than a long run
+        pool.setConnectionTimeout(2_000);
+        dataSource = "virtual-limited".equals(threadModel)
+                ? new ConcurrencyLimitedDataSource(pool, POOL_SIZE, TimeUnit.SECONDS.toMillis(30))
+                : pool;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+    
+    @Benchmark
+    public void handleRequests(Failures failures) throws Exception {
+        ExecutorService executor = "platform".equals(threadModel)
+                ? Executors.newFixedThreadPool(PLATFORM_THREADS)
+                : virtualThreadPerTask();
+        AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.execute(() -> {
+                try {
+                    handleRequest(dataSource);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Requests did not finish within 5 minutes");
+        }
+        failures.failed += failed.get();
+    }
+    
+    private static void handleRequest(DataSource dataSource) throws Exception {
+        // Stands in for reading the request and calling other services
+        Thread.sleep(IO_MILLIS);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+            Thread.sleep(DB_MILLIS);
+        }
+    }
+    
+    // The project compiles for Java 17, where this factory doesn't exist yet
+    private static ExecutorService virtualThreadPerTask() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+}
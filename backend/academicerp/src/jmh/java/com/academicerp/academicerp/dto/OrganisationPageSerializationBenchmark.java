@@ -0,0 +1,60 @@
+package com.academicerp.academicerp.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a page of organisations the way GET /api/organisations does, with an
+ * ObjectMapper configured like Spring Boot's. {@code size} covers the default page and
+ * the largest page the response cache keeps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrganisationPageSerializationBenchmark {
+    
+    @Param({"10", "100"})
+    public int size;
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Page<OrganisationResponseDto> page;
+    
+    @Setup
+    public void setUp() {
+        List<OrganisationResponseDto> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long id = i + 1;
+            OrganisationHRDto hr = new OrganisationHRDto(id, "First" + id, "Last" + id,
+                    "hr" + id + "@organisation.com", "9876543210");
+            content.add(new OrganisationResponseDto(id, "Organisation " + id, id + " Electronic City, Bangalore", hr, 3L));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, size, Sort.by("name").ascending()), 10_000);
+    }
+    
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,92 @@
+package com.academicerp.academicerp.mapper;
+
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.dto.OrganisationView;
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a list of organisations to response DTOs, from entities (the single-organisation
+ * and search paths) and from OrganisationView projections (the list endpoints). Every
+ * other organisation has an HR contact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrganisationMapperBenchmark {
+    
+    @Param({"1000", "100000"})
+    public int size;
+    
+    private final OrganisationMapper organisationMapper = new OrganisationMapper(new OrganisationHRMapper());
+    private List<Organisation> organisations;
+    private List<OrganisationView> views;
+    
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        organisations = new ArrayList<>(size);
+        views = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long id = i + 1;
+            Organisation organisation = new Organisation();
+            organisation.setId(id);
+            organisation.setName("Organisation " + id);
+            organisation.setAddress(id + " Electronic City, Bangalore");
+            organisation.setVersion(3);
+            if (i % 2 == 0) {
+                OrganisationHR hr = new OrganisationHR();
+                hr.setId(id);
+                hr.setFirstName("First" + id);
+                hr.setLastName("Last" + id);
+                hr.setEmail("hr" + id + "@organisation.com");
+                hr.setContactNumber("9876543210");
+                hr.setOrganisation(organisation);
+                organisation.setOrganisationHR(hr);
+                views.add(new OrganisationView(id, organisation.getName(), organisation.getAddress(), 3,
+                        id, hr.getFirstName(), hr.getLastName(), hr.getEmail(), hr.getContactNumber(), now));
+            } else {
+                views.add(new OrganisationView(id, organisation.getName(), organisation.getAddress(), 3,
+                        null, null, null, null, null, now));
+            }
+            organisations.add(organisation);
+        }
+    }
+    
+    @Benchmark
+    public List<OrganisationResponseDto> fromEntities() {
+        List<OrganisationResponseDto> result = new ArrayList<>(organisations.size());
+        for (Organisation organisation : organisations) {
+            result.add(organisationMapper.toResponseDto(organisation));
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public List<OrganisationResponseDto> fromViews() {
+        List<OrganisationResponseDto> result = new ArrayList<>(views.size());
+        for (OrganisationView view : views) {
+            result.add(organisationMapper.toResponseDto(view));
+        }
+        return result;
+    }
+}
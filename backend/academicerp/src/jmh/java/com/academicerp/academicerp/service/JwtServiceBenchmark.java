@@ -0,0 +1,85 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.cache.VerifiedTokenCache;
+import com.academicerp.academicerp.entity.Employee;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. Verification is measured both ways: {@code Cached} is
+ * what a repeat request costs (verified-token cache hit), {@code Uncached} is a token's
+ * first request (parse and HMAC check; also pays for one cache invalidation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    
+    private static final String EMAIL = "outreach@academicerp.com";
+    private static final List<String> ROLES = List.of(EmployeeService.ROLE_EMPLOYEE, "OUTREACH");
+    
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private Employee employee;
+    private String token;
+    private Claims claims;
+    
+    @Setup
+    public void setUp() throws Exception {
+        verifiedTokenCache = JwtFixtures.newVerifiedTokenCache();
+        jwtService = JwtFixtures.newJwtService(verifiedTokenCache);
+        employee = new Employee();
+        employee.setEmployeeId(42L);
+        employee.setDepartment("Outreach");
+        token = jwtService.generateToken(EMAIL, employee, ROLES);
+        claims = jwtService.extractAllClaims(token);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(EMAIL, employee, ROLES);
+    }
+    
+    @Benchmark
+    public String extractUsernameCached() {
+        return jwtService.extractUsername(token);
+    }
+    
+    @Benchmark
+    public String extractUsernameUncached() {
+        verifiedTokenCache.invalidate(token);
+        return jwtService.extractUsername(token);
+    }
+    
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return jwtService.isTokenValid(token, EMAIL);
+    }
+    
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        verifiedTokenCache.invalidate(token);
+        return jwtService.isTokenValid(token, EMAIL);
+    }
+    
+    /** Expiry and revocation checks alone, as the filter runs them on already-parsed claims. */
+    @Benchmark
+    public boolean isTokenValidClaims() {
+        return jwtService.isTokenValid(claims, EMAIL);
+    }
+}
@@ -0,0 +1,10 @@
+package com.academicerp.academicerp.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE,
+    BULK_UPDATE,
+    BULK_DELETE,
+    IMPORT
+}
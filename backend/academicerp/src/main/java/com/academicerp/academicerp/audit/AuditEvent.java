@@ -0,0 +1,25 @@
+package com.academicerp.academicerp.audit;
+
+import java.time.Instant;
+
+/**
+ * One audited organisation mutation. {@code sequence} is assigned when the event is written
+ * to the log and is 0 until then; {@code organisationId} is null when the event isn't about
+ * one organisation.
+ */
+public record AuditEvent(
+        long sequence,
+        Instant timestamp,
+        String principal,
+        AuditAction action,
+        Long organisationId,
+        String detail) {
+    
+    AuditEvent withSequence(long sequence) {
+        return new AuditEvent(sequence, timestamp, principal, action, organisationId, detail);
+    }
+    
+    AuditEvent withOrganisationId(Long organisationId) {
+        return new AuditEvent(sequence, timestamp, principal, action, organisationId, detail);
+    }
+}
@@ -0,0 +1,217 @@
+package com.academicerp.academicerp.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Audit trail of organisation mutations. Request threads only put the event into a lock-free
+ * ring buffer; a background thread writes it to a {@link SegmentedAuditLog} and fsyncs every
+ * {@code audit.fsync-interval}. Recording never blocks: when the buffer is full the event is
+ * dropped and counted in {@code audit.events.dropped}. A bulk operation takes one slot and
+ * the writer expands it into one event per organisation. Events recorded in the last fsync
+ * interval can be lost if the machine crashes.
+ */
+@Component
+@Slf4j
+public class AuditTrail {
+    
+    private static final int MAX_DETAIL_LENGTH = 1000;
+    private static final int DRAIN_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    
+    private final AuditRingBuffer<Entry> buffer;
+    private final SegmentedAuditLog auditLog;
+    private final long fsyncIntervalNanos;
+    private final Counter dropped;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+    
+    private final Thread writer;
+    private volatile boolean running = true;
+    
+    public AuditTrail(
+            @Value("${audit.directory:./data/audit}") Path directory,
+            @Value("${audit.segment-size:8MB}") DataSize segmentSize,
+            @Value("${audit.max-segments:32}") int maxSegments,
+            @Value("${audit.buffer-size:8192}") int bufferSize,
+            @Value("${audit.fsync-interval:PT1S}") Duration fsyncInterval,
+            MeterRegistry meterRegistry) {
+        try {
+            this.auditLog = new SegmentedAuditLog(directory, (int) segmentSize.toBytes(), maxSegments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open audit log in " + directory, e);
+        }
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        
+        this.dropped = Counter.builder("audit.events.dropped")
+                .description("Audit events discarded because the buffer was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.events.written", written, AtomicLong::get)
+                .description("Audit events appended to the log")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.events.failed", writeFailures, AtomicLong::get)
+                .description("Audit events that could not be written")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events and bulk operations waiting to be written")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+    
+    public void record(AuditAction action, Authentication authentication, Long organisationId, String detail) {
+        if (!buffer.offer(new Entry(event(action, authentication, organisationId, detail), null))) {
+            dropped.increment();
+        }
+    }
+    
+    /**
+     * Records one event per organisation of a bulk operation. The whole operation takes a
+     * single buffer slot, so however many organisations it touched it never waits for the
+     * writer; if the buffer is full, all of its events are dropped and counted.
+     */
+    public void recordEach(AuditAction action, Authentication authentication,
+                           Collection<Long> organisationIds, String detail) {
+        if (organisationIds.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(event(action, authentication, null, detail), List.copyOf(organisationIds));
+        if (!buffer.offer(entry)) {
+            dropped.increment(organisationIds.size());
+        }
+    }
+    
+    /**
+     * Events after {@code afterSequence} matching every non-null criterion, oldest first.
+     * Use the last returned sequence as {@code afterSequence} to read the next page.
+     * <p>
+     * There is no index: this reads the retained log sequentially from {@code afterSequence}
+     * until {@code limit} events match, which for a rare organisation or principal means the
+     * whole log ({@code audit.max-segments} x {@code audit.segment-size}, 256MB by default).
+     */
+    public List<AuditEvent> query(Long organisationId, String principal, AuditAction action,
+                                  Instant from, Instant to, long afterSequence, int limit) {
+        List<AuditEvent> matches = new ArrayList<>(Math.min(limit, 256));
+        replay(afterSequence + 1, event -> {
+            if (to != null && event.timestamp().isAfter(to)) {
+                // Timestamps are taken before the events are queued, so they are only
+                // roughly ordered; a little past the bound is still worth scanning
+                return event.timestamp().isBefore(to.plusSeconds(1));
+            }
+            if ((organisationId == null || organisationId.equals(event.organisationId()))
+                    && (principal == null || principal.equals(event.principal()))
+                    && (action == null || action == event.action())
+                    && (from == null || !event.timestamp().isBefore(from))) {
+                matches.add(event);
+            }
+            return matches.size() < limit;
+        });
+        return matches;
+    }
+    
+    /**
+     * Streams every logged event from {@code fromSequence} on to {@code consumer} until it returns false.
+     */
+    public void replay(long fromSequence, Predicate<AuditEvent> consumer) {
+        try {
+            auditLog.replay(fromSequence, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read audit log", e);
+        }
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        auditLog.close();
+    }
+    
+    private static AuditEvent event(AuditAction action, Authentication authentication,
+                                    Long organisationId, String detail) {
+        String principal = authentication != null ? authentication.getName() : "anonymous";
+        if (detail != null && detail.length() > MAX_DETAIL_LENGTH) {
+            detail = detail.substring(0, MAX_DETAIL_LENGTH);
+        }
+        return new AuditEvent(0, Instant.now(), principal, action, organisationId, detail);
+    }
+    
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(this::write, DRAIN_BATCH);
+            long now = System.nanoTime();
+            if (now - lastForce >= fsyncIntervalNanos) {
+                force();
+                lastForce = now;
+            }
+            if (drained == 0 && running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        force();
+    }
+    
+    private void write(Entry entry) {
+        if (entry.organisationIds() == null) {
+            append(entry.event());
+            return;
+        }
+        for (Long organisationId : entry.organisationIds()) {
+            append(entry.event().withOrganisationId(organisationId));
+        }
+    }
+    
+    private void append(AuditEvent event) {
+        try {
+            auditLog.append(event);
+            written.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            writeFailures.incrementAndGet();
+            log.error("Could not write audit event {}", event, e);
+        }
+    }
+    
+    private void force() {
+        try {
+            auditLog.force();
+        } catch (RuntimeException e) {
+            log.error("Could not fsync audit log", e);
+        }
+    }
+    
+    /**
+     * One buffer slot: a single event, or a bulk operation's event shared by each of its organisations.
+     */
+    private record Entry(AuditEvent event, List<Long> organisationIds) {
+    }
+}
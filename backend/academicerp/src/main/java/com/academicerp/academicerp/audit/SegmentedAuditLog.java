@@ -0,0 +1,271 @@
+package com.academicerp.academicerp.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit log split into fixed-size, memory-mapped segment files named after the
+ * sequence of their first record. A record is {@code [length][payload][crc32]}; the length is
+ * written last, so a reader, or recovery after a crash, stops at the first record whose length
+ * is still zero or whose checksum does not match. Appends, {@link #force} and {@link #close}
+ * must come from a single writer thread; {@link #replay} may run on any thread.
+ */
+class SegmentedAuditLog implements Closeable {
+    
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.log");
+    private static final int LENGTH_BYTES = 4;
+    private static final int CRC_BYTES = 4;
+    private static final int FORMAT_VERSION = 1;
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    
+    // Base sequence -> segment file, oldest first; guarded by this
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long nextSequence;
+    private boolean dirty;
+    
+    SegmentedAuditLog(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "audit-*.log")) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            recover(segments.lastEntry());
+        }
+    }
+    
+    /**
+     * Writes the event with the next sequence number and returns it as stored.
+     */
+    AuditEvent append(AuditEvent event) throws IOException {
+        AuditEvent stored = event.withSequence(nextSequence);
+        byte[] payload = encode(stored);
+        int recordSize = LENGTH_BYTES + payload.length + CRC_BYTES;
+        if (recordSize > segmentSize) {
+            throw new IOException("Audit record of " + recordSize + " bytes does not fit in a segment");
+        }
+        if (active.position() + recordSize > segmentSize) {
+            rotate();
+        }
+        
+        int start = active.position();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        active.position(start + LENGTH_BYTES);
+        active.put(payload);
+        active.putInt((int) crc.getValue());
+        // Publishes the record
+        active.putInt(start, payload.length);
+        
+        nextSequence++;
+        dirty = true;
+        return stored;
+    }
+    
+    void force() {
+        if (dirty) {
+            active.force();
+            dirty = false;
+        }
+    }
+    
+    /**
+     * Feeds every readable record with a sequence of at least {@code fromSequence} to
+     * {@code consumer}, oldest first, until it returns {@code false}.
+     */
+    void replay(long fromSequence, Predicate<AuditEvent> consumer) throws IOException {
+        List<Map.Entry<Long, Path>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(new TreeMap<>(segments).entrySet());
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            // Skip whole segments that end before the requested sequence
+            if (i + 1 < snapshot.size() && snapshot.get(i + 1).getKey() <= fromSequence) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(snapshot.get(i).getValue(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int position = 0;
+                AuditEvent event;
+                while ((event = readRecord(buffer, position)) != null) {
+                    position += LENGTH_BYTES + buffer.getInt(position) + CRC_BYTES;
+                    if (event.sequence() >= fromSequence && !consumer.test(event)) {
+                        return;
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // Removed by retention while we were reading older segments
+            }
+        }
+    }
+    
+    long nextSequence() {
+        return nextSequence;
+    }
+    
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        activeChannel.close();
+    }
+    
+    private void recover(Map.Entry<Long, Path> last) throws IOException {
+        mapSegment(last.getValue());
+        long sequence = last.getKey();
+        int position = 0;
+        AuditEvent event;
+        while ((event = readRecord(active, position)) != null) {
+            position += LENGTH_BYTES + active.getInt(position) + CRC_BYTES;
+            sequence = event.sequence() + 1;
+        }
+        // Anything after the last valid record is a torn write; the next append overwrites it
+        if (position + LENGTH_BYTES <= segmentSize) {
+            active.putInt(position, 0);
+        }
+        active.position(position);
+        nextSequence = sequence;
+    }
+    
+    private void rotate() throws IOException {
+        force();
+        activeChannel.close();
+        openSegment(nextSequence);
+        
+        List<Path> expired = new ArrayList<>();
+        synchronized (this) {
+            while (segments.size() > maxSegments) {
+                expired.add(segments.pollFirstEntry().getValue());
+            }
+        }
+        for (Path segment : expired) {
+            Files.deleteIfExists(segment);
+        }
+    }
+    
+    private void openSegment(long baseSequence) throws IOException {
+        Path segment = directory.resolve(String.format("audit-%020d.log", baseSequence));
+        mapSegment(segment);
+        synchronized (this) {
+            segments.put(baseSequence, segment);
+        }
+        nextSequence = baseSequence;
+    }
+    
+    private void mapSegment(Path segment) throws IOException {
+        activeChannel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows a new file to the full segment size, zero-filled
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    
+    private static byte[] encode(AuditEvent event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(event.sequence());
+            out.writeLong(event.timestamp().getEpochSecond());
+            out.writeInt(event.timestamp().getNano());
+            writeString(out, event.action().name());
+            writeString(out, event.principal());
+            out.writeBoolean(event.organisationId() != null);
+            if (event.organisationId() != null) {
+                out.writeLong(event.organisationId());
+            }
+            writeString(out, event.detail() != null ? event.detail() : "");
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Audit field longer than 65535 bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    // Null at the end of the written records: zero length, short buffer or checksum mismatch
+    private static AuditEvent readRecord(ByteBuffer buffer, int position) {
+        if (position + LENGTH_BYTES > buffer.limit()) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || (long) position + LENGTH_BYTES + length + CRC_BYTES > buffer.limit()) {
+            return null;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(position + LENGTH_BYTES).limit(position + LENGTH_BYTES + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(position + LENGTH_BYTES + length)) {
+            return null;
+        }
+        try {
+            if (payload.get() != FORMAT_VERSION) {
+                return null;
+            }
+            long sequence = payload.getLong();
+            Instant timestamp = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+            AuditAction action = AuditAction.valueOf(readString(payload));
+            String principal = readString(payload);
+            Long organisationId = payload.get() != 0 ? payload.getLong() : null;
+            String detail = readString(payload);
+            return new AuditEvent(sequence, timestamp, principal, action, organisationId, detail);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
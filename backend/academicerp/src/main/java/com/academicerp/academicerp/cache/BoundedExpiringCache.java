@@ -0,0 +1,122 @@
+package com.academicerp.academicerp.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Small concurrent cache where every entry carries its own expiry instant.
+ * The number of entries is capped; when the cap is reached expired entries are
+ * purged first and, if that is not enough, arbitrary entries are dropped.
+ */
+public class BoundedExpiringCache<K, V> {
+    
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final LongSupplier clock;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public BoundedExpiringCache(int maximumSize) {
+        this(maximumSize, System::currentTimeMillis);
+    }
+    
+    public BoundedExpiringCache(int maximumSize, LongSupplier clock) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+    }
+    
+    /**
+     * Returns the cached value, or {@code null} when the key is absent or its entry has expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.getAsLong()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+    
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        if (entries.size() >= maximumSize && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+    
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+    
+    public void invalidateAll() {
+        entries.clear();
+    }
+    
+    /**
+     * Removes every entry whose expiry instant has passed.
+     */
+    public void purgeExpired() {
+        purgeExpired(clock.getAsLong());
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public long hitCount() {
+        return hits.sum();
+    }
+    
+    public long missCount() {
+        return misses.sum();
+    }
+    
+    public long evictionCount() {
+        return evictions.sum();
+    }
+    
+    private void makeRoom(long now) {
+        purgeExpired(now);
+        // Still full: drop roughly a tenth of the entries so we don't land here on every put.
+        int target = maximumSize - Math.max(1, maximumSize / 10);
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+    
+    private void purgeExpired(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAtMillis() <= now) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+    
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+}
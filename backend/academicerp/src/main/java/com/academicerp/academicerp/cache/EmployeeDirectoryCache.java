@@ -0,0 +1,93 @@
+package com.academicerp.academicerp.cache;
+
+import com.academicerp.academicerp.entity.Employee;
+import com.academicerp.academicerp.repository.EmployeeRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Read-through near-cache of the employee directory, keyed by normalized email.
+ * Non-employees are cached too (as an empty result) with a shorter TTL, so repeated
+ * lookups for outsiders don't reach the database either. Cached employees are
+ * shared between callers and must be treated as read-only.
+ */
+@Component
+public class EmployeeDirectoryCache {
+    
+    private final EmployeeRepository employeeRepository;
+    private final BoundedExpiringCache<String, Optional<Employee>> cache;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Timer loadTimer;
+    
+    public EmployeeDirectoryCache(
+            EmployeeRepository employeeRepository,
+            MeterRegistry meterRegistry,
+            @Value("${employee.cache.max-size:5000}") int maximumSize,
+            @Value("${employee.cache.ttl:5m}") Duration ttl,
+            @Value("${employee.cache.negative-ttl:1m}") Duration negativeTtl) {
+        this.employeeRepository = employeeRepository;
+        this.cache = new BoundedExpiringCache<>(maximumSize);
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        
+        this.loadTimer = Timer.builder("employee.directory.cache.load")
+                .description("Time spent loading employees from the database on a cache miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.directory.cache.requests", cache, BoundedExpiringCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.directory.cache.requests", cache, BoundedExpiringCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.directory.cache.evictions", cache, BoundedExpiringCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("employee.directory.cache.size", cache, BoundedExpiringCache::size)
+                .register(meterRegistry);
+        Gauge.builder("employee.directory.cache.hit.ratio", cache, EmployeeDirectoryCache::hitRatio)
+                .register(meterRegistry);
+    }
+    
+    public Optional<Employee> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String key = normalize(email);
+        Optional<Employee> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Optional<Employee> loaded = loadTimer.record(() -> employeeRepository.findByEmail(key));
+        cache.put(key, loaded, System.currentTimeMillis() + (loaded.isPresent() ? ttlMillis : negativeTtlMillis));
+        return loaded;
+    }
+    
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(normalize(email));
+        }
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static double hitRatio(BoundedExpiringCache<?, ?> cache) {
+        long hits = cache.hitCount();
+        long total = hits + cache.missCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
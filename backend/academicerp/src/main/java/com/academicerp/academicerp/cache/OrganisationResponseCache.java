@@ -0,0 +1,111 @@
+package com.academicerp.academicerp.cache;
+
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Organisation list responses kept as ready-to-send JSON bytes, plain and gzipped, with
+ * their ETag. Entries are keyed by the ETag the caller read from the shared collection
+ * revision for this request, so a write committed on any node moves requests onto a new
+ * entry at once; the old ones age out. Local changes also drop every entry straight away,
+ * and loads are tagged with a generation number so a response built from data read before
+ * such a change is never stored after its invalidation.
+ */
+@Component
+public class OrganisationResponseCache {
+    
+    public record SerializedResponse(String etag, byte[] json, byte[] gzip) {
+    }
+    
+    private final BoundedExpiringCache<String, SerializedResponse> cache;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+    
+    public OrganisationResponseCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${organisation.response-cache.max-size:64}") int maximumSize,
+            @Value("${organisation.response-cache.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = new BoundedExpiringCache<>(maximumSize);
+        this.ttlMillis = ttl.toMillis();
+        
+        FunctionCounter.builder("organisation.response.cache.requests", cache, BoundedExpiringCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("organisation.response.cache.requests", cache, BoundedExpiringCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("organisation.response.cache.size", cache, BoundedExpiringCache::size)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Cached response for {@code key} at {@code etag}, or a freshly built one. Read the ETag
+     * before anything {@code body} reads so it never claims newer data than the body holds.
+     */
+    public SerializedResponse get(String key, String etag, Supplier<?> body) {
+        String entryKey = key + "@" + etag;
+        SerializedResponse cached = cache.get(entryKey);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long loadGeneration = generation.get();
+        byte[] json = serialize(body.get());
+        SerializedResponse response = new SerializedResponse(etag, json, gzip(json));
+        synchronized (lock) {
+            if (generation.get() == loadGeneration) {
+                cache.put(entryKey, response, System.currentTimeMillis() + ttlMillis);
+            }
+        }
+        return response;
+    }
+    
+    @TransactionalEventListener
+    public void onOrganisationChanged(OrganisationChangedEvent event) {
+        invalidateAll();
+    }
+    
+    public void invalidateAll() {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+    
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize organisation response", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.academicerp.academicerp.cache;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keeps the claims of JWTs whose signature has already been checked, so a token
+ * presented on every request is parsed and verified only once. Entries are keyed
+ * by a SHA-256 digest of the compact token and expire together with the token.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private final BoundedExpiringCache<String, Claims> cache;
+    
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maximumSize, MeterRegistry meterRegistry) {
+        this.cache = new BoundedExpiringCache<>(maximumSize);
+        
+        FunctionCounter.builder("jwt.token.cache.requests", cache, BoundedExpiringCache::hitCount)
+                .tag("result", "hit")
+                .description("Verified-token cache lookups")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.token.cache.requests", cache, BoundedExpiringCache::missCount)
+                .tag("result", "miss")
+                .description("Verified-token cache lookups")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.token.cache.evictions", cache, BoundedExpiringCache::evictionCount)
+                .description("Verified tokens dropped because they expired or the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("jwt.token.cache.size", cache, BoundedExpiringCache::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+    
+    public Claims get(String token) {
+        return cache.get(digest(token));
+    }
+    
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return;
+        }
+        cache.put(digest(token), claims, expiration.getTime());
+    }
+    
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+    
+    public long hitCount() {
+        return cache.hitCount();
+    }
+    
+    public long missCount() {
+        return cache.missCount();
+    }
+    
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+    
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
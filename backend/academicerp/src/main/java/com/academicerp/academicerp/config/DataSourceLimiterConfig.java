@@ -0,0 +1,53 @@
+package com.academicerp.academicerp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the Hikari pool in a {@link ConcurrencyLimitedDataSource} sized to its maximum pool
+ * size. Meant for virtual-thread mode, where thousands of request threads can reach the
+ * database at once; enabled by {@code datasource.limiter.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.limiter.enabled", havingValue = "true")
+public class DataSourceLimiterConfig {
+    
+    // Static: post-processors are created before the rest of the configuration
+    @Bean
+    static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+        Duration acquireTimeout = environment.getProperty(
+                "datasource.limiter.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConcurrencyLimitedDataSource(hikari, hikari.getMaximumPoolSize(), acquireTimeout.toMillis());
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    MeterBinder dataSourceLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("datasource.limiter.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                        .description("Threads waiting for a database connection permit")
+                        .register(registry);
+                Gauge.builder("datasource.limiter.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .description("Database connection permits not in use")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.academicerp.academicerp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+
+/**
+ * Drops the authorized client (Google's access token) once login completes. The login only
+ * needs the user's identity, which {@link OAuth2AuthenticationSuccessHandler} turns into our
+ * own JWTs; keeping the client would leave one entry per user on the heap, which is what the
+ * default in-memory authorized client service does.
+ */
+class DiscardingOAuth2AuthorizedClientRepository implements OAuth2AuthorizedClientRepository {
+    
+    @Override
+    public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(
+            String clientRegistrationId, Authentication principal, HttpServletRequest request) {
+        return null;
+    }
+    
+    @Override
+    public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal,
+                                     HttpServletRequest request, HttpServletResponse response) {
+    }
+    
+    @Override
+    public void removeAuthorizedClient(String clientRegistrationId, Authentication principal,
+                                       HttpServletRequest request, HttpServletResponse response) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.academicerp.academicerp.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Keeps the in-flight OAuth2 authorization request in an AES-GCM encrypted cookie
+ * instead of the HTTP session, so the login round trip through Google can land on
+ * any node. GCM authenticates the payload, so a tampered cookie is simply rejected.
+ */
+@Component
+@Slf4j
+public class HttpCookieOAuth2AuthorizationRequestRepository
+        implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+    
+    static final String COOKIE_NAME = "oauth2_auth_request";
+    
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final Duration COOKIE_MAX_AGE = Duration.ofMinutes(3);
+    
+    private final SecretKey key;
+    private final boolean secureCookie;
+    private final SecureRandom random = new SecureRandom();
+    
+    public HttpCookieOAuth2AuthorizationRequestRepository(
+            @Value("${security.oauth2.cookie-secret:${jwt.secret}}") String cookieSecret,
+            @Value("${security.oauth2.cookie-secure:false}") boolean secureCookie) {
+        this.key = deriveKey(cookieSecret);
+        this.secureCookie = secureCookie;
+    }
+    
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return decode(cookie.getValue());
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request, HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            writeCookie(response, "", Duration.ZERO);
+            return;
+        }
+        writeCookie(response, encode(authorizationRequest), COOKIE_MAX_AGE);
+    }
+    
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request,
+                                                                 HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            writeCookie(response, "", Duration.ZERO);
+        }
+        return authorizationRequest;
+    }
+    
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        // Lax so the cookie comes back on the top-level redirect from the identity provider
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+    
+    private String encode(OAuth2AuthorizationRequest authorizationRequest) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(authorizationRequest);
+            }
+            
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(COOKIE_NAME.getBytes(StandardCharsets.US_ASCII));
+            byte[] encrypted = cipher.doFinal(bytes.toByteArray());
+            
+            ByteBuffer payload = ByteBuffer.allocate(iv.length + encrypted.length);
+            payload.put(iv).put(encrypted);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.array());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encode OAuth2 authorization request", e);
+        }
+    }
+    
+    private OAuth2AuthorizationRequest decode(String value) {
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(value);
+            if (payload.length <= IV_LENGTH) {
+                return null;
+            }
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            cipher.updateAAD(COOKIE_NAME.getBytes(StandardCharsets.US_ASCII));
+            byte[] decrypted = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+            
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(decrypted))) {
+                // Defence in depth: only the types an authorization request is made of
+                in.setObjectInputFilter(ObjectInputFilter.Config.createFilter(
+                        "org.springframework.security.**;java.util.**;java.lang.**;!*"));
+                return (OAuth2AuthorizationRequest) in.readObject();
+            }
+        } catch (IllegalArgumentException | IOException | ClassNotFoundException | ClassCastException
+                 | GeneralSecurityException e) {
+            log.debug("Discarding unreadable OAuth2 authorization request cookie", e);
+            return null;
+        }
+    }
+    
+    private static SecretKey deriveKey(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(("oauth2-cookie:" + secret).getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.academicerp.academicerp.config;
+
+import com.academicerp.academicerp.entity.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the table generator rows past ids already in use. Rows inserted while the entities
+ * used IDENTITY (or by hand) are invisible to the generator, which would otherwise hand out
+ * colliding ids. Runs after Hibernate has created or updated the schema.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdGeneratorSeeder {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    public void seed() {
+        seed(IdGenerators.ORGANISATIONS, "organisations");
+        seed(IdGenerators.ORGANISATION_HR, "organisation_hr");
+    }
+    
+    private void seed(String sequenceName, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        
+        // The pooled optimizer hands out (next_val - allocation size, next_val] from a stored value
+        long floor = maxId + IdGenerators.ALLOCATION_SIZE;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+                        + IdGenerators.NAME_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?",
+                floor, sequenceName, floor);
+        if (updated > 0) {
+            log.info("Advanced id generator {} to {}", sequenceName, floor);
+            return;
+        }
+        
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.NAME_COLUMN + " = ?",
+                Integer.class, sequenceName);
+        if (rows != null && rows == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", "
+                            + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)",
+                    sequenceName, floor);
+            log.info("Seeded id generator {} at {}", sequenceName, floor);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.academicerp.academicerp.config;
 
 import com.academicerp.academicerp.service.EmployeeService;
 import com.academicerp.academicerp.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -20,13 +23,32 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    // EventSource can't send headers, so the change feed also accepts a short-lived ?ticket=
+    // (POST /api/organisations/stream/ticket); access tokens are never taken from the URL
+    static final String CHANGE_FEED_PATH = "/api/organisations/stream";
+    static final String STREAM_TICKET_PARAMETER = "ticket";
+    
     private final JwtService jwtService;
-    private final EmployeeService employeeService;
+    // Token parsing, signature and validity checks, i.e. what authentication adds to a request
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    
+    public JwtAuthenticationFilter(JwtService jwtService, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.authenticatedTimer = Timer.builder("jwt.verification")
+                .tag("result", "authenticated")
+                .description("Bearer token verification per request")
+                .register(meterRegistry);
+        this.rejectedTimer = Timer.builder("jwt.verification")
+                .tag("result", "rejected")
+                .description("Bearer token verification per request")
+                .register(meterRegistry);
+    }
     
     @Override
     protected void doFilterInternal(
@@ -44,25 +66,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final boolean streamTicket;
+        final Claims claims;
         final String userEmail;
         
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwt = authHeader.substring(7);
+            streamTicket = false;
+        } else if (CHANGE_FEED_PATH.equals(request.getServletPath())
+                && request.getParameter(STREAM_TICKET_PARAMETER) != null) {
+            jwt = request.getParameter(STREAM_TICKET_PARAMETER);
+            streamTicket = true;
+        } else {
             filterChain.doFilter(request, response);
             return;
         }
         
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        long verificationStarted = System.nanoTime();
+        try {
+            // Parsed and signature-checked once, then served from the verified-token cache
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTimer.record(System.nanoTime() - verificationStarted, TimeUnit.NANOSECONDS);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        userEmail = claims.getSubject();
         
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Validate that the user is a valid employee
-            if (employeeService.isValidEmployee(userEmail) && jwtService.isTokenValid(jwt, userEmail)) {
-                // Check if employee is from Outreach department for Organisation access
-                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                authorities.add(new SimpleGrantedAuthority("ROLE_EMPLOYEE"));
-                
-                if (employeeService.isOutreachEmployee(userEmail)) {
-                    authorities.add(new SimpleGrantedAuthority("ROLE_OUTREACH"));
+            // Roles come from the token itself, so no employee lookup is needed per request;
+            // isTokenValid only reaches the revocation table on a Bloom-filter hit
+            List<String> roles = jwtService.extractRoles(claims);
+            // A ticket only opens the stream, and only a ticket is accepted from the URL
+            boolean valid = !jwtService.isRefreshToken(claims) && jwtService.isStreamTicket(claims) == streamTicket
+                    && roles.contains(EmployeeService.ROLE_EMPLOYEE) && jwtService.isTokenValid(claims, userEmail);
+            (valid ? authenticatedTimer : rejectedTimer).record(System.nanoTime() - verificationStarted, TimeUnit.NANOSECONDS);
+            if (valid) {
+                List<SimpleGrantedAuthority> authorities = new ArrayList<>(roles.size());
+                for (String role : roles) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
                 }
                 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -1,8 +1,7 @@
 package com.academicerp.academicerp.config;
 
-import com.academicerp.academicerp.entity.Employee;
-import com.academicerp.academicerp.service.EmployeeService;
-import com.academicerp.academicerp.service.JwtService;
+import com.academicerp.academicerp.dto.AuthTokensDto;
+import com.academicerp.academicerp.service.AuthTokenService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -22,8 +21,7 @@ import java.nio.charset.StandardCharsets;
 @Slf4j
 public class OAuth2AuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
-    private final JwtService jwtService;
-    private final EmployeeService employeeService;
+    private final AuthTokenService authTokenService;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
@@ -44,22 +42,17 @@ public class OAuth2AuthenticationSuccessHandler implements AuthenticationSuccess
                 return;
             }
             
-            // Check if user is a valid employee
-            boolean isValidEmployee = employeeService.isValidEmployee(email);
-            log.info("User {} is valid employee: {}", email, isValidEmployee);
-            
-            // Check if user is from Outreach department (only if valid employee)
-            boolean isOutreach = isValidEmployee && employeeService.isOutreachEmployee(email);
-            log.info("User {} is from Outreach department: {}", email, isOutreach);
-            
-            // Generate JWT token for all users (employee or not)
-            String token = jwtService.generateToken(email);
+            // Look the employee up once; id, department and roles travel inside the token
+            AuthTokensDto tokens = authTokenService.issueTokens(email);
+            boolean isOutreach = tokens.isOutreach();
+            log.info("User {} roles: {}", email, tokens.getRoles());
             log.info("JWT token generated for user: {}", email);
             
             // Redirect to frontend with token and department info
             // isOutreach will be true only if user is both valid employee AND from Outreach
             // Non-employees will have isOutreach=false and be redirected to Welcome page
-            String redirectUrl = "http://localhost:5173/auth/callback?token=" + URLEncoder.encode(token, StandardCharsets.UTF_8) + 
+            String redirectUrl = "http://localhost:5173/auth/callback?token=" + URLEncoder.encode(tokens.getToken(), StandardCharsets.UTF_8) + 
+                                "&refreshToken=" + URLEncoder.encode(tokens.getRefreshToken(), StandardCharsets.UTF_8) + 
                                 "&isOutreach=" + String.valueOf(isOutreach);
             log.info("Redirecting to: {}", redirectUrl);
             response.sendRedirect(redirectUrl);
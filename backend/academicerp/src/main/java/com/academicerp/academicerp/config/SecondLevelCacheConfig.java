@@ -0,0 +1,23 @@
+package com.academicerp.academicerp.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands each SessionFactory a JCache {@code CacheManager} of its own for the second-level
+ * cache. Resolved through the caching provider, every context in the JVM would share one
+ * manager and Hibernate closes it with its SessionFactory, so one context shutting down (or
+ * failing to start) closed the caches of every other. A provider instance per context keeps
+ * its managers apart; regions are still configured from application.conf.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheManager() {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, new CaffeineCachingProvider().getCacheManager());
+    }
+}
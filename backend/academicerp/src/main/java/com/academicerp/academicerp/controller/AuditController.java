@@ -0,0 +1,46 @@
+package com.academicerp.academicerp.controller;
+
+import com.academicerp.academicerp.audit.AuditAction;
+import com.academicerp.academicerp.audit.AuditEvent;
+import com.academicerp.academicerp.audit.AuditTrail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AuditController {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    private final AuditTrail auditTrail;
+    
+    /**
+     * Organisation audit events, oldest first. Pass the last sequence returned as {@code after}
+     * to fetch the next page. Each call scans the retained log from {@code after} until
+     * {@code limit} events match, up to the whole log, so page with {@code after} rather than
+     * repeating a query from the start.
+     */
+    @GetMapping("/organisations")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<List<AuditEvent>> getOrganisationAuditEvents(
+            @RequestParam(required = false) Long organisationId,
+            @RequestParam(required = false) String principal,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(auditTrail.query(organisationId, principal, action, from, to, after, pageSize));
+    }
+}
@@ -1,16 +1,21 @@
 package com.academicerp.academicerp.controller;
 
+import com.academicerp.academicerp.dto.AuthTokensDto;
 import com.academicerp.academicerp.entity.Employee;
+import com.academicerp.academicerp.service.AuthTokenService;
 import com.academicerp.academicerp.service.EmployeeService;
 import com.academicerp.academicerp.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.view.RedirectView;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,45 +26,7 @@ public class AuthController {
     
     private final JwtService jwtService;
     private final EmployeeService employeeService;
-    
-    @GetMapping("/oauth2/success")
-    public RedirectView oauth2Success(@AuthenticationPrincipal OAuth2User principal) {
-        try {
-            // Check if principal is null (user not authenticated via OAuth2)
-            if (principal == null) {
-                return new RedirectView("http://localhost:5173/auth/callback?error=oauth2_required");
-            }
-            
-            String email = principal.getAttribute("email");
-            String firstName = principal.getAttribute("given_name");
-            String lastName = principal.getAttribute("family_name");
-            
-            if (email == null) {
-                return new RedirectView("http://localhost:5173/auth/callback?error=email_not_found");
-            }
-            
-            // Check if user is a valid employee
-            if (!employeeService.isValidEmployee(email)) {
-                return new RedirectView("http://localhost:5173/auth/callback?error=not_employee");
-            }
-            
-            // Check if user is from Outreach department for Organisation access
-            if (!employeeService.isOutreachEmployee(email)) {
-                return new RedirectView("http://localhost:5173/auth/callback?error=not_outreach");
-            }
-            
-            // Create or update employee record
-            Employee employee = employeeService.createEmployeeIfNotExists(email, firstName, lastName);
-            
-            // Generate JWT token
-            String token = jwtService.generateToken(email);
-            
-            // Redirect to frontend with token
-            return new RedirectView("http://localhost:5173/auth/callback?token=" + token);
-        } catch (Exception e) {
-            return new RedirectView("http://localhost:5173/auth/callback?error=auth_failed");
-        }
-    }
+    private final AuthTokenService authTokenService;
     
     @PostMapping("/user-info")
     public ResponseEntity<?> getUserInfo(@RequestBody Map<String, String> request) {
@@ -102,28 +69,33 @@ public class AuthController {
         }
     }
     
+    /**
+     * The caller's email and roles, read from the bearer token the JWT filter accepted; there
+     * is no session to read an OAuth2 login from.
+     */
     @GetMapping("/user")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal OAuth2User principal) {
-        if (principal == null) {
+    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "User not authenticated");
             return ResponseEntity.status(401).body(error);
         }
         
-        String email = principal.getAttribute("email");
-        if (!employeeService.isValidEmployee(email)) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Access denied. Only registered employees can access this system.");
-            return ResponseEntity.status(403).body(error);
-        }
-        
-        if (!employeeService.isOutreachEmployee(email)) {
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .toList();
+        if (!roles.contains(EmployeeService.ROLE_OUTREACH)) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Access denied. Only Outreach department employees can access Organisation operations.");
             return ResponseEntity.status(403).body(error);
         }
         
-        return ResponseEntity.ok(principal.getAttributes());
+        Map<String, Object> response = new HashMap<>();
+        response.put("email", authentication.getName());
+        response.put("roles", roles);
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/validate-token")
@@ -136,14 +108,19 @@ public class AuthController {
         }
         
         try {
-            String email = jwtService.extractUsername(token);
-            boolean isValid = jwtService.isTokenValid(token, email) && employeeService.isValidEmployee(email) && employeeService.isOutreachEmployee(email);
+            // Answered from the token's own claims; no employee lookup
+            Claims claims = jwtService.extractAllClaims(token);
+            String email = claims.getSubject();
+            List<String> roles = jwtService.extractRoles(claims);
+            boolean isEmployee = roles.contains(EmployeeService.ROLE_EMPLOYEE);
+            boolean isOutreach = roles.contains(EmployeeService.ROLE_OUTREACH);
+            boolean isValid = !jwtService.isRefreshToken(claims) && jwtService.isTokenValid(claims, email) && isEmployee && isOutreach;
             
             Map<String, Object> response = new HashMap<>();
             response.put("valid", isValid);
             if (isValid) {
                 response.put("email", email);
-            } else if (employeeService.isValidEmployee(email) && !employeeService.isOutreachEmployee(email)) {
+            } else if (isEmployee && !isOutreach) {
                 response.put("error", "Access denied. Only Outreach department employees can access Organisation operations.");
             }
             
@@ -156,6 +133,52 @@ public class AuthController {
         }
     }
     
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> request) {
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Refresh token is required");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            // Re-reads the employee, so department/role changes show up on the next refresh
+            AuthTokensDto tokens = authTokenService.refresh(refreshToken);
+            return ResponseEntity.ok(tokens);
+        } catch (JwtException | IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid refresh token");
+            return ResponseEntity.status(401).body(error);
+        }
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, String> request) {
+        String token = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        String refreshToken = null;
+        if (request != null) {
+            if (token == null) {
+                token = request.get("token");
+            }
+            refreshToken = request.get("refreshToken");
+        }
+        
+        if (token == null && refreshToken == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Token is required");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        authTokenService.revokeTokens(token, refreshToken);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Logged out successfully");
+        return ResponseEntity.ok(response);
+    }
+    
     // TEST ENDPOINT - Remove in production
     @PostMapping("/generate-test-token")
     public ResponseEntity<?> generateTestToken(@RequestBody Map<String, String> request) {
@@ -180,11 +203,12 @@ public class AuthController {
             return ResponseEntity.status(403).body(error);
         }
         
-        // Generate JWT token
-        String token = jwtService.generateToken(email);
+        // Generate JWT tokens
+        AuthTokensDto tokens = authTokenService.issueTokens(email);
         
         Map<String, Object> response = new HashMap<>();
-        response.put("token", token);
+        response.put("token", tokens.getToken());
+        response.put("refreshToken", tokens.getRefreshToken());
         response.put("email", email);
         response.put("message", "Test token generated successfully");
         
@@ -0,0 +1,29 @@
+package com.academicerp.academicerp.controller;
+
+import com.academicerp.academicerp.service.JwtKeyManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    
+    private final JwtKeyManager jwtKeyManager;
+    
+    /**
+     * Public signing keys for local token verification by other nodes and sidecars.
+     * Verifiers should cache the set and only refetch when they meet an unknown kid.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtKeyManager.getJwkSet());
+    }
+}
@@ -1,38 +1,86 @@
 package com.academicerp.academicerp.controller;
 
+import com.academicerp.academicerp.audit.AuditAction;
+import com.academicerp.academicerp.audit.AuditTrail;
+import com.academicerp.academicerp.cache.OrganisationResponseCache;
+import com.academicerp.academicerp.dto.CursorPageDto;
+import com.academicerp.academicerp.dto.OrganisationBulkResultDto;
+import com.academicerp.academicerp.dto.OrganisationBulkUpdateDto;
+import com.academicerp.academicerp.dto.OrganisationDeltaDto;
+import com.academicerp.academicerp.dto.OrganisationFilterDto;
+import com.academicerp.academicerp.dto.OrganisationImportResultDto;
 import com.academicerp.academicerp.dto.OrganisationRequestDto;
 import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.dto.OrganisationSuggestionDto;
 import com.academicerp.academicerp.dto.OrganisationUpdateDto;
+import com.academicerp.academicerp.event.OrganisationChangeFeed;
+import com.academicerp.academicerp.exception.OrganisationVersionMismatchException;
+import com.academicerp.academicerp.search.OrganisationNameSuggester;
+import com.academicerp.academicerp.service.JwtService;
+import com.academicerp.academicerp.service.OrganisationExportService;
+import com.academicerp.academicerp.service.OrganisationImportService;
 import com.academicerp.academicerp.service.OrganisationService;
+import com.academicerp.academicerp.service.OrganisationSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/organisations")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class OrganisationController {
     
+    // Browsers keep the body but revalidate with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final int CACHED_PAGES = 5;
+    private static final Set<String> CACHED_SORT_FIELDS = Set.of("id", "name", "address");
+    
     private final OrganisationService organisationService;
+    private final OrganisationExportService organisationExportService;
+    private final OrganisationImportService organisationImportService;
+    private final OrganisationNameSuggester organisationNameSuggester;
+    private final OrganisationResponseCache organisationResponseCache;
+    private final OrganisationChangeFeed organisationChangeFeed;
+    private final OrganisationSyncService organisationSyncService;
+    private final AuditTrail auditTrail;
+    private final JwtService jwtService;
     
     @PostMapping
     @PreAuthorize("hasRole('OUTREACH')")
     public ResponseEntity<?> createOrganisation(@Valid @RequestBody OrganisationRequestDto requestDto, Authentication authentication) {
         try {
             OrganisationResponseDto responseDto = organisationService.createOrganisation(requestDto);
+            auditTrail.record(AuditAction.CREATE, authentication, responseDto.getId(), responseDto.getName());
             return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
@@ -41,12 +89,38 @@ public class OrganisationController {
         }
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<?> importOrganisations(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) {
+        OrganisationImportService.Format format = contentType.toLowerCase(Locale.ROOT).contains("ndjson")
+                ? OrganisationImportService.Format.NDJSON
+                : OrganisationImportService.Format.CSV;
+        try {
+            OrganisationImportResultDto result = organisationImportService.importOrganisations(format, body);
+            auditTrail.recordEach(AuditAction.IMPORT, authentication, result.getOrganisationIds(),
+                    "created by " + format + " import");
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | IOException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OUTREACH')")
-    public ResponseEntity<?> getOrganisationById(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getOrganisationById(@PathVariable Long id, WebRequest webRequest, Authentication authentication) {
         try {
+            // Compare against the version alone first so a 304 never loads or serializes the row
+            Optional<Long> version = organisationService.getOrganisationVersion(id);
+            if (version.isPresent() && webRequest.checkNotModified(versionETag(version.get()))) {
+                return null;
+            }
             OrganisationResponseDto responseDto = organisationService.getOrganisationById(id);
-            return ResponseEntity.ok(responseDto);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(versionETag(responseDto.getVersion())).body(responseDto);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -56,18 +130,58 @@ public class OrganisationController {
     
     @GetMapping
     @PreAuthorize("hasRole('OUTREACH')")
-    public ResponseEntity<List<OrganisationResponseDto>> getAllOrganisations(Authentication authentication) {
-        List<OrganisationResponseDto> organisations = organisationService.getAllOrganisations();
-        return ResponseEntity.ok(organisations);
+    public ResponseEntity<byte[]> getAllOrganisations(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest,
+            Authentication authentication) {
+        // One primary-key read per request keeps the cached entry in step with writes on every node
+        String etag = "\"" + organisationService.getOrganisationsVersion().toETagValue() + "\"";
+        OrganisationResponseCache.SerializedResponse response =
+                organisationResponseCache.get("all", etag, organisationService::getAllOrganisations);
+        return serializedResponse(response, acceptEncoding, webRequest);
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<StreamingResponseBody> exportOrganisations(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication) {
+        OrganisationExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? OrganisationExportService.Format.CSV
+                : OrganisationExportService.Format.NDJSON;
+        boolean gzip = acceptsGzip(acceptEncoding);
+        
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            organisationExportService.export(exportFormat, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat == OrganisationExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"organisations."
+                        + exportFormat.name().toLowerCase(Locale.ROOT) + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
     
     @GetMapping("/paginated")
     @PreAuthorize("hasRole('OUTREACH')")
-    public ResponseEntity<Page<OrganisationResponseDto>> getAllOrganisationsPaginated(
+    public ResponseEntity<?> getAllOrganisationsPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest,
             Authentication authentication) {
         
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -75,8 +189,98 @@ public class OrganisationController {
                 Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<OrganisationResponseDto> organisations = organisationService.getAllOrganisationsPaginated(pageable);
-        return ResponseEntity.ok(organisations);
+        String etag = "\"" + organisationService.getOrganisationsVersion().toETagValue() + "-"
+                + Integer.toHexString((page + "/" + size + "/" + sortBy + "/" + sortDir).hashCode()) + "\"";
+        Supplier<Page<OrganisationResponseDto>> organisations = () -> organisationService.getAllOrganisationsPaginated(pageable);
+        
+        // Only the first pages in the usual sort orders are worth keeping serialized
+        if (page < CACHED_PAGES && size <= 100 && CACHED_SORT_FIELDS.contains(sortBy)) {
+            String key = "page:" + page + ":" + size + ":" + sortBy + ":" + (sortDir.equalsIgnoreCase("desc") ? "desc" : "asc");
+            return serializedResponse(organisationResponseCache.get(key, etag, organisations), acceptEncoding, webRequest);
+        }
+        
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(organisations.get());
+    }
+    
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<?> getOrganisationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, 100));
+            CursorPageDto<OrganisationResponseDto> organisations =
+                    organisationService.getOrganisationsByCursor(sortBy, sortDir, cursor, pageSize, includeTotal);
+            return ResponseEntity.ok(organisations);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    /**
+     * Delta sync: organisations changed and ids deleted since the watermark from the previous
+     * call (omit it for the first sync), plus the watermark to send next time.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<?> getOrganisationChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            Authentication authentication) {
+        try {
+            int pageSize = Math.max(1, Math.min(limit, OrganisationSyncService.MAX_LIMIT));
+            OrganisationDeltaDto changes = organisationSyncService.getChanges(since, pageSize);
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changes);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    /**
+     * Ticket for opening the change stream, valid for {@code jwt.stream-ticket-expiration}.
+     * EventSource can't set headers, so browsers fetch one with their bearer token and open
+     * {@code /stream?ticket=...}; the access token itself never goes into a URL.
+     */
+    @PostMapping("/stream/ticket")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<Map<String, Object>> createStreamTicket(Authentication authentication) {
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .toList();
+        Map<String, Object> response = new HashMap<>();
+        response.put("ticket", jwtService.generateStreamTicket(authentication.getName(), roles));
+        response.put("expiresIn", jwtService.getStreamTicketExpirationMillis() / 1000);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(response);
+    }
+    
+    /**
+     * Server-Sent Events stream of committed organisation changes (events "created",
+     * "updated", "deleted", and "reset" when missed events can't be replayed). Browsers
+     * authenticate with a ticket from {@code POST /stream/ticket} since EventSource can't
+     * set headers. Tickets expire quickly, so EventSource's own reconnect fails once the
+     * ticket has; clients then open a new stream with a fresh ticket and pass the last
+     * event id they saw as {@code lastEventId}.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('OUTREACH')")
+    public SseEmitter streamOrganisationChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventId,
+            Authentication authentication) {
+        return organisationChangeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
     }
     
     @GetMapping("/search")
@@ -97,15 +301,32 @@ public class OrganisationController {
         return ResponseEntity.ok(organisations);
     }
     
+    @GetMapping("/autocomplete")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<List<OrganisationSuggestionDto>> autocompleteOrganisations(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        List<OrganisationSuggestionDto> suggestions =
+                organisationNameSuggester.suggest(prefix, Math.max(1, Math.min(limit, 50)));
+        return ResponseEntity.ok(suggestions);
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('OUTREACH')")
     public ResponseEntity<?> updateOrganisation(
             @PathVariable Long id,
             @Valid @RequestBody OrganisationUpdateDto updateDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
         try {
-            OrganisationResponseDto responseDto = organisationService.updateOrganisation(id, updateDto);
-            return ResponseEntity.ok(responseDto);
+            OrganisationResponseDto responseDto = organisationService.updateOrganisation(id, updateDto, parseIfMatch(ifMatch));
+            auditTrail.record(AuditAction.UPDATE, authentication, id, "version " + responseDto.getVersion());
+            return ResponseEntity.ok().eTag(versionETag(responseDto.getVersion())).body(responseDto);
+        } catch (OrganisationVersionMismatchException | ObjectOptimisticLockingFailureException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Organisation has been modified by someone else, reload and try again");
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -115,12 +336,20 @@ public class OrganisationController {
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('OUTREACH')")
-    public ResponseEntity<?> deleteOrganisation(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> deleteOrganisation(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
         try {
-            organisationService.deleteOrganisation(id);
+            organisationService.deleteOrganisation(id, parseIfMatch(ifMatch));
+            auditTrail.record(AuditAction.DELETE, authentication, id, null);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Organisation deleted successfully");
             return ResponseEntity.ok(response);
+        } catch (OrganisationVersionMismatchException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Organisation has been modified by someone else, reload and try again");
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -128,6 +357,40 @@ public class OrganisationController {
         }
     }
     
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<?> bulkUpdateOrganisations(
+            @Valid @RequestBody OrganisationBulkUpdateDto updateDto,
+            Authentication authentication) {
+        try {
+            OrganisationBulkResultDto result = organisationService.bulkUpdateOrganisations(updateDto);
+            auditTrail.recordEach(AuditAction.BULK_UPDATE, authentication, result.getOrganisationIds(),
+                    "address set by bulk update, filter " + updateDto.getFilter());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('OUTREACH')")
+    public ResponseEntity<?> bulkDeleteOrganisations(
+            @RequestBody OrganisationFilterDto filter,
+            Authentication authentication) {
+        try {
+            OrganisationBulkResultDto result = organisationService.bulkDeleteOrganisations(filter);
+            auditTrail.recordEach(AuditAction.BULK_DELETE, authentication, result.getOrganisationIds(),
+                    "deleted by bulk delete, filter " + filter);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
     @GetMapping("/{id}/exists")
     @PreAuthorize("hasRole('OUTREACH')")
     public ResponseEntity<Map<String, Boolean>> checkOrganisationExists(@PathVariable Long id, Authentication authentication) {
@@ -145,4 +408,49 @@ public class OrganisationController {
         response.put("exists", Boolean.valueOf(exists));
         return ResponseEntity.ok(response);
     }
+    
+    private static ResponseEntity<byte[]> serializedResponse(
+            OrganisationResponseCache.SerializedResponse response, String acceptEncoding, WebRequest webRequest) {
+        if (webRequest.checkNotModified(response.etag())) {
+            return null;
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(response.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? response.gzip() : response.json());
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+    
+    private static String versionETag(long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * Version named by an If-Match header: null when absent or "*", otherwise the first
+     * entity tag. A tag that isn't one of our versions can never match, and If-Match uses
+     * strong comparison, so neither can a weak tag.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.split(",")[0].trim();
+        if (tag.startsWith("W/")) {
+            throw new OrganisationVersionMismatchException("If-Match needs a strong entity tag: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new OrganisationVersionMismatchException("If-Match does not name an organisation version: " + ifMatch);
+        }
+    }
 }
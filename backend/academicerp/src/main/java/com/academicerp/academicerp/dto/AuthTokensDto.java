@@ -0,0 +1,20 @@
+package com.academicerp.academicerp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokensDto {
+    
+    private String token;
+    private String refreshToken;
+    private long expiresIn;
+    private String email;
+    private List<String> roles;
+    private boolean outreach;
+}
@@ -0,0 +1,23 @@
+package com.academicerp.academicerp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private String previousCursor;
+    private boolean hasNext;
+    private boolean hasPrevious;
+    
+    // Only filled in when the client asks for it, since it costs a COUNT(*)
+    private Long totalElements;
+}
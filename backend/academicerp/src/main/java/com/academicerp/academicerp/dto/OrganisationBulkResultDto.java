@@ -0,0 +1,21 @@
+package com.academicerp.academicerp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationBulkResultDto {
+    
+    private int organisationsAffected;
+    private int hrContactsAffected;
+    
+    // For the audit trail; can be far too many to send back
+    @JsonIgnore
+    private List<Long> organisationIds = List.of();
+}
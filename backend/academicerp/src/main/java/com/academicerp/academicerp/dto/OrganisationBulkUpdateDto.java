@@ -0,0 +1,21 @@
+package com.academicerp.academicerp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationBulkUpdateDto {
+    
+    @NotNull(message = "Filter is required")
+    @Valid
+    private OrganisationFilterDto filter;
+    
+    @NotBlank(message = "Address is required")
+    private String address;
+}
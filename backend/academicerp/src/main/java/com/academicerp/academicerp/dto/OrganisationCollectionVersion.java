@@ -0,0 +1,12 @@
+package com.academicerp.academicerp.dto;
+
+/**
+ * Version of the whole organisations list: the revision counter every committed
+ * organisation write raises, so it changes whenever the list could have.
+ */
+public record OrganisationCollectionVersion(long revision) {
+    
+    public String toETagValue() {
+        return "r" + revision;
+    }
+}
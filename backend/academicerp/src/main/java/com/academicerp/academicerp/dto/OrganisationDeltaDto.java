@@ -0,0 +1,24 @@
+package com.academicerp.academicerp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of organisation changes since a sync watermark. Clients upsert {@code changed},
+ * remove {@code deleted}, store {@code watermark} and ask again while {@code hasMore} is set.
+ * {@code fullResync} means the watermark is older than the kept tombstones: drop the local
+ * copy and sync again without one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationDeltaDto {
+    private List<OrganisationResponseDto> changed;
+    private List<Long> deleted;
+    private String watermark;
+    private boolean hasMore;
+    private boolean fullResync;
+}
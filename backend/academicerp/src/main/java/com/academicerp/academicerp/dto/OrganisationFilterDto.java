@@ -0,0 +1,21 @@
+package com.academicerp.academicerp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects organisations for a bulk operation. Criteria that are set are combined with AND;
+ * at least one must be set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationFilterDto {
+    
+    private List<Long> ids;
+    private String nameContains;
+    private String addressContains;
+}
@@ -0,0 +1,16 @@
+package com.academicerp.academicerp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationImportErrorDto {
+    
+    // 1-based data row (CSV record after the header, or NDJSON line)
+    private int row;
+    private String email;
+    private String error;
+}
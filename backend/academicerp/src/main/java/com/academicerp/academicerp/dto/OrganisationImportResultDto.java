@@ -0,0 +1,26 @@
+package com.academicerp.academicerp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationImportResultDto {
+    
+    private int totalRows;
+    private int importedRows;
+    private int failedRows;
+    private long durationMillis;
+    // Imported rows per second of the whole request; rejected rows don't count
+    private double rowsPerSecond;
+    private List<OrganisationImportErrorDto> errors;
+    
+    // For the audit trail; can be far too many to send back
+    @JsonIgnore
+    private List<Long> organisationIds = List.of();
+}
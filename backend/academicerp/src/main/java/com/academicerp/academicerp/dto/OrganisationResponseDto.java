@@ -13,4 +13,5 @@ public class OrganisationResponseDto {
     private String name;
     private String address;
     private OrganisationHRDto hrDetails;
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package com.academicerp.academicerp.dto;
+
+import java.time.Instant;
+
+/**
+ * Flat read model of an organisation and its HR contact, selected column by column with a
+ * JPQL constructor expression. Nothing is attached to the persistence context, so reads
+ * skip entity hydration, snapshots and dirty checking. HR columns are null when the
+ * organisation has no HR row.
+ */
+public record OrganisationView(
+        Long id,
+        String name,
+        String address,
+        long version,
+        Long hrId,
+        String hrFirstName,
+        String hrLastName,
+        String hrEmail,
+        String hrContactNumber,
+        Instant updatedAt) {
+}
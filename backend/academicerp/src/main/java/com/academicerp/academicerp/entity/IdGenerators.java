@@ -0,0 +1,20 @@
+package com.academicerp.academicerp.entity;
+
+/**
+ * Table-backed id generation shared by the organisation entities. Unlike IDENTITY this lets
+ * Hibernate assign ids before the INSERT, so inserts can be sent as JDBC batches; each
+ * round trip to the generator table reserves {@link #ALLOCATION_SIZE} ids (pooled optimizer).
+ */
+public final class IdGenerators {
+    
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+    
+    public static final String ORGANISATIONS = "organisations";
+    public static final String ORGANISATION_HR = "organisation_hr";
+    
+    private IdGenerators() {
+    }
+}
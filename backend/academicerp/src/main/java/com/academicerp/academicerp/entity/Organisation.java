@@ -5,16 +5,28 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "organisations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organisations")
+@Table(name = "organisations", indexes = {
+        @Index(name = "idx_organisations_name_id", columnList = "name, id"),
+        @Index(name = "idx_organisations_updated_at_id", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Organisation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "organisation_id")
+    @TableGenerator(name = "organisation_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.ORGANISATIONS, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Organisation name is required")
@@ -25,6 +37,29 @@ public class Organisation {
     @Column(nullable = false)
     private String address;
     
+    // Bumped on every change to the organisation or its HR contact; drives ETag / If-Match
+    @Version
+    @Column(nullable = false)
+    private long version;
+    
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+    
+    // Also bumped when only the HR contact changes; delta sync scans (updated_at, id)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    
     @OneToOne(mappedBy = "organisation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private OrganisationHR organisationHR;
+    
+    @PrePersist
+    void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
 }
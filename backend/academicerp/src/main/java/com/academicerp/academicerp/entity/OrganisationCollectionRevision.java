@@ -0,0 +1,27 @@
+package com.academicerp.academicerp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter raised by every committed organisation write, in the same
+ * transaction, so it is a strong validator for the organisation list.
+ */
+@Entity
+@Table(name = "organisation_collection_revision")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationCollectionRevision {
+    
+    public static final int ID = 1;
+    
+    @Id
+    @Column(name = "id")
+    private Integer id;
+    
+    @Column(name = "revision", nullable = false)
+    private Long revision;
+}
@@ -6,8 +6,17 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organisation-hr")
+@NaturalIdCache(region = "organisation-hr-by-email")
 @Table(name = "organisation_hr")
 @Data
 @NoArgsConstructor
@@ -15,7 +24,10 @@ import lombok.NoArgsConstructor;
 public class OrganisationHR {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "organisation_hr_id")
+    @TableGenerator(name = "organisation_hr_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, valueColumnName = IdGenerators.VALUE_COLUMN,
+            pkColumnValue = IdGenerators.ORGANISATION_HR, allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -28,6 +40,7 @@ public class OrganisationHR {
     
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
     
@@ -35,7 +48,24 @@ public class OrganisationHR {
     @Column(name = "contact_number", nullable = false)
     private String contactNumber;
     
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+    
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    
     @OneToOne
     @JoinColumn(name = "organisation_id", nullable = false)
     private Organisation organisation;
+    
+    @PrePersist
+    void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,29 @@
+package com.academicerp.academicerp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marks a deleted organisation so delta-sync clients learn about the delete. Kept for
+ * {@code organisation.sync.tombstone-retention}, after which clients must resync fully.
+ */
+@Entity
+@Table(name = "organisation_tombstones", indexes = {
+        @Index(name = "idx_organisation_tombstones_deleted_at_id", columnList = "deleted_at, organisation_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationTombstone {
+    
+    @Id
+    @Column(name = "organisation_id")
+    private Long organisationId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
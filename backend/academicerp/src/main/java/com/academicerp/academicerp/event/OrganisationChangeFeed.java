@@ -0,0 +1,250 @@
+package com.academicerp.academicerp.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed organisation changes out to Server-Sent Events subscribers.
+ * <p>
+ * Each change is serialized and framed once, then offered to every subscriber's bounded
+ * queue; the committing thread never blocks on a client. Queues are drained by a small pool,
+ * and a subscriber whose queue is full is disconnected (it reconnects and catches up). Event ids
+ * are {@code <boot>-<sequence>}; the most recent events are kept so a reconnect with
+ * {@code Last-Event-ID} replays what was missed, or gets a {@code reset} event when the gap
+ * is too old to replay or the server has restarted.
+ */
+@Component
+@Slf4j
+public class OrganisationChangeFeed {
+    
+    private static final String RESET_EVENT = "reset";
+    
+    private final ObjectMapper objectMapper;
+    private final int clientBufferSize;
+    private final int historySize;
+    private final long timeoutMillis;
+    
+    // Distinguishes ids issued by this process from those of a previous run
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<FeedEvent> history = new ArrayDeque<>();
+    private long sequence;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    
+    public OrganisationChangeFeed(
+            ObjectMapper objectMapper,
+            @Value("${organisation.feed.client-buffer:256}") int clientBufferSize,
+            @Value("${organisation.feed.history:1024}") int historySize,
+            @Value("${organisation.feed.timeout:30m}") Duration timeout,
+            @Value("${organisation.feed.dispatcher-threads:4}") int dispatcherThreads) {
+        this.objectMapper = objectMapper;
+        this.clientBufferSize = clientBufferSize;
+        this.historySize = historySize;
+        this.timeoutMillis = timeout.toMillis();
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "organisation-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Opens a stream for one client, first replaying anything after {@code lastEventId}.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        
+        synchronized (history) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+    
+    @TransactionalEventListener
+    public void onOrganisationChanged(OrganisationChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize organisation change {}", event, e);
+            return;
+        }
+        
+        // Offered under the lock so every subscriber sees events in sequence order
+        synchronized (history) {
+            String id = eventId(++sequence);
+            FeedEvent feedEvent = new FeedEvent(sequence, SseEmitter.event()
+                    .id(id)
+                    .name(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(data, MediaType.APPLICATION_JSON)
+                    .build());
+            history.addLast(feedEvent);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(feedEvent.event());
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${organisation.feed.heartbeat-interval:PT20S}")
+    public void sendHeartbeats() {
+        // Keeps idle connections open through proxies and finds clients that went away
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("keepalive").build());
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+    
+    private void replay(Subscriber subscriber, String lastEventId) {
+        List<FeedEvent> missed = missedEvents(lastEventId);
+        if (missed == null) {
+            // Missed events are gone; the client has to reload the list
+            subscriber.offer(SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON).build());
+            return;
+        }
+        for (FeedEvent event : missed) {
+            subscriber.offer(event.event());
+        }
+    }
+    
+    /**
+     * Events after {@code lastEventId}, or null when the client has to reset: the id is from
+     * another run or malformed, or some of what it missed is no longer kept, or is more than
+     * fits its queue. Callers hold the history lock.
+     */
+    List<FeedEvent> missedEvents(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        long lastSequence = -1;
+        if (separator > 0 && lastEventId.substring(0, separator).equals(bootId)) {
+            try {
+                lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                lastSequence = -1;
+            }
+        }
+        
+        FeedEvent oldest = history.peekFirst();
+        boolean replayable = lastSequence >= 0 && lastSequence <= sequence
+                && sequence - lastSequence <= clientBufferSize
+                && (oldest == null ? lastSequence == sequence : lastSequence >= oldest.sequence() - 1);
+        if (!replayable) {
+            return null;
+        }
+        List<FeedEvent> missed = new ArrayList<>((int) (sequence - lastSequence));
+        for (FeedEvent event : history) {
+            if (event.sequence() > lastSequence) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+    
+    String eventId(long eventSequence) {
+        return bootId + "-" + eventSequence;
+    }
+    
+    // A built event is only read from then on, so one instance is shared by every subscriber
+    record FeedEvent(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(clientBufferSize);
+        }
+        
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Disconnecting organisation feed subscriber: {} events behind", queue.size());
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Pick up anything offered between the last poll and clearing the flag
+            scheduleDrain();
+        }
+        
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.academicerp.academicerp.event;
+
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code OrganisationService} for every organisation write. Listeners that
+ * mirror organisation data in memory should use {@code @TransactionalEventListener} so
+ * they only see changes that were actually committed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OrganisationChangedEvent {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private final Type type;
+    private final Long organisationId;
+    
+    // State after the change; null for DELETED
+    private final OrganisationResponseDto organisation;
+    
+    public static OrganisationChangedEvent created(OrganisationResponseDto organisation) {
+        return new OrganisationChangedEvent(Type.CREATED, organisation.getId(), organisation);
+    }
+    
+    public static OrganisationChangedEvent updated(OrganisationResponseDto organisation) {
+        return new OrganisationChangedEvent(Type.UPDATED, organisation.getId(), organisation);
+    }
+    
+    public static OrganisationChangedEvent deleted(Long organisationId) {
+        return new OrganisationChangedEvent(Type.DELETED, organisationId, null);
+    }
+}
@@ -1,5 +1,7 @@
 package com.academicerp.academicerp.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -37,6 +40,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
     
+    // Duplicate checks run before the write, so the unique constraint only fires on a race (or an
+    // email written on another node); answer it like the check would have
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        if (isDuplicateHREmail(ex)) {
+            return handleDuplicateOrganisationException(
+                    new DuplicateOrganisationException("Organisation with this HR email already exists", ex));
+        }
+        return handleGenericException(ex);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -67,4 +81,22 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
+    
+    // The only unique key organisation_hr is written against is email (organisation_id is fixed at create)
+    private static boolean isDuplicateHREmail(DataIntegrityViolationException ex) {
+        ConstraintViolationException violation = findCause(ex, ConstraintViolationException.class);
+        return violation != null
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                && violation.getSQL() != null
+                && violation.getSQL().toLowerCase(Locale.ROOT).contains("organisation_hr");
+    }
+    
+    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
 }
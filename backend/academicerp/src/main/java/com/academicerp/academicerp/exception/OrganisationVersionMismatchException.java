@@ -0,0 +1,10 @@
+package com.academicerp.academicerp.exception;
+
+/**
+ * The client's If-Match version is no longer the organisation's current version.
+ */
+public class OrganisationVersionMismatchException extends RuntimeException {
+    public OrganisationVersionMismatchException(String message) {
+        super(message);
+    }
+}
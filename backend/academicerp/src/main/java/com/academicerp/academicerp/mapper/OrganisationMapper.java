@@ -1,8 +1,10 @@
 package com.academicerp.academicerp.mapper;
 
+import com.academicerp.academicerp.dto.OrganisationHRDto;
 import com.academicerp.academicerp.dto.OrganisationRequestDto;
 import com.academicerp.academicerp.dto.OrganisationResponseDto;
 import com.academicerp.academicerp.dto.OrganisationUpdateDto;
+import com.academicerp.academicerp.dto.OrganisationView;
 import com.academicerp.academicerp.entity.Organisation;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -35,10 +37,24 @@ public class OrganisationMapper {
         responseDto.setName(organisation.getName());
         responseDto.setAddress(organisation.getAddress());
         responseDto.setHrDetails(organisationHRMapper.toDto(organisation.getOrganisationHR()));
+        responseDto.setVersion(organisation.getVersion());
         
         return responseDto;
     }
     
+    public OrganisationResponseDto toResponseDto(OrganisationView view) {
+        if (view == null) {
+            return null;
+        }
+        
+        OrganisationHRDto hrDetails = null;
+        if (view.hrId() != null) {
+            hrDetails = new OrganisationHRDto(view.hrId(), view.hrFirstName(), view.hrLastName(),
+                    view.hrEmail(), view.hrContactNumber());
+        }
+        return new OrganisationResponseDto(view.id(), view.name(), view.address(), hrDetails, view.version());
+    }
+    
     public void updateEntityFromDto(OrganisationUpdateDto updateDto, Organisation organisation) {
         if (updateDto == null || organisation == null) {
             return;
@@ -0,0 +1,90 @@
+package com.academicerp.academicerp.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL statements per request and the time spent executing them, tagged with the matched
+ * URI pattern like {@code http.server.requests}. With open-in-view each request runs on one
+ * Hibernate Session, so the totals {@link SqlMetricsSessionEventListener} reports when the
+ * session ends are the request's. Sessions outside a request (scheduled jobs, startup) are
+ * tagged {@code uri=none}.
+ */
+@Component
+public class RequestSqlMetrics {
+    
+    private static final String NO_REQUEST = "none";
+    private static final String UNMATCHED = "UNKNOWN";
+    
+    // Hibernate instantiates the session listener itself, so it reaches the meters through here
+    private static volatile RequestSqlMetrics current;
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> metersByUri = new ConcurrentHashMap<>();
+    
+    public RequestSqlMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @PostConstruct
+    void activate() {
+        current = this;
+    }
+    
+    @PreDestroy
+    void deactivate() {
+        current = null;
+    }
+    
+    static void recordSession(int statements, long statementNanos) {
+        RequestSqlMetrics metrics = current;
+        if (metrics != null) {
+            metrics.record(currentUri(), statements, statementNanos);
+        }
+    }
+    
+    private void record(String uri, int statements, long statementNanos) {
+        // Plain get first: the meters exist after the first request to each endpoint
+        Meters meters = metersByUri.get(uri);
+        if (meters == null) {
+            meters = metersByUri.computeIfAbsent(uri, this::register);
+        }
+        meters.statements.record(statements);
+        meters.time.record(statementNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private Meters register(String uri) {
+        DistributionSummary statements = DistributionSummary.builder("sql.request.statements")
+                .tag("uri", uri)
+                .description("JDBC statements executed per request")
+                .register(meterRegistry);
+        Timer time = Timer.builder("sql.request.time")
+                .tag("uri", uri)
+                .description("Time per request spent executing JDBC statements")
+                .register(meterRegistry);
+        return new Meters(statements, time);
+    }
+    
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_REQUEST;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : UNMATCHED;
+    }
+    
+    private record Meters(DistributionSummary statements, Timer time) {
+    }
+}
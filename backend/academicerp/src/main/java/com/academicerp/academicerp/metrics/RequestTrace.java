@@ -0,0 +1,102 @@
+package com.academicerp.academicerp.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL executed by the current request, collected by {@link SqlTraceStatementInspector} and
+ * {@link SqlMetricsSessionEventListener} while {@link RequestTracingFilter} has a trace open
+ * on the thread. A full trace keeps every statement; otherwise only statements slower than
+ * the statement threshold are kept, and the rest just add to the totals.
+ */
+final class RequestTrace {
+    
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    
+    private final boolean full;
+    private final long statementThresholdNanos;
+    private final List<Statement> statements = new ArrayList<>();
+    private String pendingSql;
+    private int statementCount;
+    private long statementNanos;
+    
+    private RequestTrace(boolean full, long statementThresholdNanos) {
+        this.full = full;
+        this.statementThresholdNanos = statementThresholdNanos;
+    }
+    
+    static RequestTrace open(boolean full, long statementThresholdNanos) {
+        RequestTrace trace = new RequestTrace(full, statementThresholdNanos);
+        CURRENT.set(trace);
+        return trace;
+    }
+    
+    static void close() {
+        CURRENT.remove();
+    }
+    
+    /** Called as Hibernate prepares a statement; the next execution is attributed to it. */
+    static void statementPrepared(String sql) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.pendingSql = sql;
+        }
+    }
+    
+    static void statementExecuted(long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.record(nanos);
+        }
+    }
+    
+    private void record(long nanos) {
+        statementCount++;
+        statementNanos += nanos;
+        if (full || nanos >= statementThresholdNanos) {
+            // Only the reference is kept; bind markers are counted when the trace is logged
+            statements.add(new Statement(pendingSql, nanos));
+        }
+    }
+    
+    boolean isFull() {
+        return full;
+    }
+    
+    int getStatementCount() {
+        return statementCount;
+    }
+    
+    long getStatementNanos() {
+        return statementNanos;
+    }
+    
+    List<Statement> getStatements() {
+        return statements;
+    }
+    
+    record Statement(String sql, long nanos) {
+        
+        /** Number of {@code ?} bind markers outside quoted literals and identifiers. */
+        int bindCount() {
+            if (sql == null) {
+                return 0;
+            }
+            int count = 0;
+            char quote = 0;
+            for (int i = 0; i < sql.length(); i++) {
+                char c = sql.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                } else if (c == '?') {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.academicerp.academicerp.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link RequestTrace} for each request and logs it afterwards if the request took
+ * longer than {@code tracing.request-threshold} or ran a statement slower than
+ * {@code tracing.statement-threshold}. A {@code tracing.sample-rate} fraction of requests,
+ * and any request whose {@code tracing.force-header} header carries the
+ * {@code tracing.force-token} secret, is traced in full with every statement listed. The
+ * header is ignored while no token is configured. Everything else is counted and dropped
+ * without logging.
+ * <p>
+ * Only the path, SQL text and bind counts are logged, never the query string (it can carry
+ * credentials) or bound values. Work handed off to another thread (streamed exports) is not
+ * traced.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+// Ahead of the security chain, so token verification counts towards the request's time
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestTracingFilter extends OncePerRequestFilter {
+    
+    private final long requestThresholdNanos;
+    private final long statementThresholdNanos;
+    private final double sampleRate;
+    private final String forceHeader;
+    private final byte[] forceToken;
+    
+    public RequestTracingFilter(
+            @Value("${tracing.request-threshold:500ms}") Duration requestThreshold,
+            @Value("${tracing.statement-threshold:100ms}") Duration statementThreshold,
+            @Value("${tracing.sample-rate:0.0}") double sampleRate,
+            @Value("${tracing.force-header:X-Trace}") String forceHeader,
+            @Value("${tracing.force-token:}") String forceToken) {
+        this.requestThresholdNanos = requestThreshold.toNanos();
+        this.statementThresholdNanos = statementThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.forceHeader = forceHeader;
+        this.forceToken = forceToken.isBlank() ? null : forceToken.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        boolean full = isForced(request)
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        RequestTrace trace = RequestTrace.open(full, statementThresholdNanos);
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            RequestTrace.close();
+            if (full || elapsed >= requestThresholdNanos || !trace.getStatements().isEmpty()) {
+                log.info(format(request, response, trace, elapsed));
+            }
+        }
+    }
+    
+    // Full traces cost a log line per statement; don't let any client ask for them
+    private boolean isForced(HttpServletRequest request) {
+        String value = request.getHeader(forceHeader);
+        return forceToken != null && value != null
+                && MessageDigest.isEqual(forceToken, value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String format(HttpServletRequest request, HttpServletResponse response, RequestTrace trace, long elapsed) {
+        StringBuilder message = new StringBuilder(256)
+                .append(trace.isFull() ? "Traced " : "Slow ")
+                .append(request.getMethod()).append(' ').append(request.getRequestURI())
+                .append(" -> ").append(response.getStatus())
+                .append(" in ").append(millis(elapsed)).append(" ms, ")
+                .append(trace.getStatementCount()).append(" statements in ")
+                .append(millis(trace.getStatementNanos())).append(" ms");
+        for (RequestTrace.Statement statement : trace.getStatements()) {
+            message.append("\n  ").append(millis(statement.nanos())).append(" ms, ")
+                    .append(statement.bindCount()).append(" binds: ").append(statement.sql());
+        }
+        return message.toString();
+    }
+    
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
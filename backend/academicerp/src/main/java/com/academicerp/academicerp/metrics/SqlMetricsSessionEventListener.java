@@ -0,0 +1,48 @@
+package com.academicerp.academicerp.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the JDBC statements a Hibernate Session executes and the time spent in them, and
+ * hands the totals to {@link RequestSqlMetrics} when the session ends; each statement's time
+ * also goes to the {@link RequestTrace} open on the thread, if any. Hibernate creates one
+ * instance per Session from {@code hibernate.session.events.auto}; a Session is used by one
+ * thread at a time, so plain fields are enough.
+ */
+public class SqlMetricsSessionEventListener implements SessionEventListener {
+    
+    private int statements;
+    private long statementNanos;
+    private long startedAt;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statements++;
+        startedAt = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        long elapsed = System.nanoTime() - startedAt;
+        statementNanos += elapsed;
+        RequestTrace.statementExecuted(elapsed);
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statements++;
+        startedAt = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        long elapsed = System.nanoTime() - startedAt;
+        statementNanos += elapsed;
+        RequestTrace.statementExecuted(elapsed);
+    }
+    
+    @Override
+    public void end() {
+        RequestSqlMetrics.recordSession(statements, statementNanos);
+    }
+}
@@ -0,0 +1,17 @@
+package com.academicerp.academicerp.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Passes each SQL string Hibernate is about to prepare to the request's {@link RequestTrace};
+ * the statement itself is returned unchanged. Registered through
+ * {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlTraceStatementInspector implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        RequestTrace.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,22 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.entity.OrganisationCollectionRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrganisationCollectionRevisionRepository extends JpaRepository<OrganisationCollectionRevision, Integer> {
+    
+    // 0 until the row has been created by the first write
+    @Modifying
+    @Query("UPDATE OrganisationCollectionRevision r SET r.revision = r.revision + 1 " +
+           "WHERE r.id = " + OrganisationCollectionRevision.ID)
+    int increment();
+    
+    @Query("SELECT r.revision FROM OrganisationCollectionRevision r WHERE r.id = " + OrganisationCollectionRevision.ID)
+    Optional<Long> findRevision();
+}
@@ -0,0 +1,14 @@
+package com.academicerp.academicerp.repository;
+
+/**
+ * Lookups by the HR email natural id. These go through Hibernate's natural-id API, so an
+ * email already in the natural-id cache is resolved without any SQL.
+ */
+public interface OrganisationHRNaturalIdRepository {
+    
+    /**
+     * Whether an HR contact has this email, without loading the contact or its organisation.
+     * Only emails that exist are cached; any other costs one indexed id lookup.
+     */
+    boolean emailExists(String email);
+}
@@ -0,0 +1,24 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.entity.OrganisationHR;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+class OrganisationHRNaturalIdRepositoryImpl implements OrganisationHRNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public boolean emailExists(String email) {
+        if (email == null) {
+            return false;
+        }
+        // getReference resolves the email to an id (cache, else SELECT id) and returns an
+        // uninitialized proxy, so the row and its EAGER organisation are never loaded
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(OrganisationHR.class)
+                .getReference(email) != null;
+    }
+}
@@ -1,23 +1,45 @@
 package com.academicerp.academicerp.repository;
 
 import com.academicerp.academicerp.entity.OrganisationHR;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrganisationHRRepository extends JpaRepository<OrganisationHR, Long> {
+public interface OrganisationHRRepository extends JpaRepository<OrganisationHR, Long>, OrganisationHRNaturalIdRepository {
     
     Optional<OrganisationHR> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
+    @Query("SELECT hr.email FROM OrganisationHR hr WHERE hr.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT hr.email FROM OrganisationHR hr")
+    List<String> findAllEmails();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<OrganisationHR> findByOrganisationId(Long organisationId);
     
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM OrganisationHR hr WHERE hr.organisation.id IN :organisationIds")
+    int deleteByOrganisationIdIn(@Param("organisationIds") Collection<Long> organisationIds);
+    
+    @Modifying
+    @Query("UPDATE OrganisationHR hr SET hr.createdAt = COALESCE(hr.createdAt, :now), hr.updatedAt = COALESCE(hr.updatedAt, :now) " +
+           "WHERE hr.createdAt IS NULL OR hr.updatedAt IS NULL")
+    int backfillTimestamps(@Param("now") Instant now);
+    
     @Query("SELECT hr FROM OrganisationHR hr WHERE " +
            "LOWER(hr.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(hr.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
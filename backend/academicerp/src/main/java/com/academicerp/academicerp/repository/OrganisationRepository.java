@@ -1,18 +1,104 @@
 package com.academicerp.academicerp.repository;
 
+import com.academicerp.academicerp.dto.OrganisationSuggestionDto;
+import com.academicerp.academicerp.dto.OrganisationView;
 import com.academicerp.academicerp.entity.Organisation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Repository
 public interface OrganisationRepository extends JpaRepository<Organisation, Long> {
     
-    @Query("SELECT o FROM Organisation o LEFT JOIN o.organisationHR hr WHERE " +
+    // Organisation.organisationHR is the inverse side of a one-to-one, which Hibernate cannot
+    // proxy lazily; every read that gets mapped to a DTO fetches it in the same statement.
+    
+    @Override
+    @EntityGraph(attributePaths = "organisationHR")
+    List<Organisation> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = "organisationHR")
+    Page<Organisation> findAll(Pageable pageable);
+    
+    @Override
+    @EntityGraph(attributePaths = "organisationHR")
+    Optional<Organisation> findById(Long id);
+    
+    // Read models: flat projections for the read-only endpoints, see OrganisationView.
+    
+    String VIEW_SELECT = "SELECT new com.academicerp.academicerp.dto.OrganisationView(" +
+            "o.id, o.name, o.address, o.version, hr.id, hr.firstName, hr.lastName, hr.email, hr.contactNumber, o.updatedAt) " +
+            "FROM Organisation o LEFT JOIN o.organisationHR hr";
+    
+    @Query(VIEW_SELECT)
+    List<OrganisationView> findAllViews();
+    
+    @Query(value = VIEW_SELECT, countQuery = "SELECT COUNT(o) FROM Organisation o")
+    Page<OrganisationView> findAllViews(Pageable pageable);
+    
+    // Served from the query cache until either table is written to
+    @Query(VIEW_SELECT + " WHERE o.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<OrganisationView> findViewById(@Param("id") Long id);
+    
+    // Conditional requests: answer If-None-Match without loading the rows
+    
+    @Query("SELECT o.version FROM Organisation o WHERE o.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    @Override
+    @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END FROM Organisation o WHERE o.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(@Param("id") Long id);
+    
+    @Query(VIEW_SELECT + " WHERE " +
+           "LOWER(o.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(o.address) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(hr.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(hr.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(hr.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<OrganisationView> searchOrganisationViews(@Param("searchTerm") String searchTerm);
+    
+    @Query(VIEW_SELECT + " WHERE LOWER(o.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<OrganisationView> findViewsByNameContaining(@Param("name") String name);
+    
+    // Keyset (seek) pagination: callers pass PageRequest.of(0, n) purely as a row limit,
+    // the ordering is fixed by the query and matches the (name, id) index.
+    
+    @EntityGraph(attributePaths = "organisationHR")
+    List<Organisation> findAllBy(Pageable pageable);
+    
+    @Query("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR WHERE o.id > :id ORDER BY o.id ASC")
+    List<Organisation> findPageAfterId(@Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR WHERE o.id < :id ORDER BY o.id DESC")
+    List<Organisation> findPageBeforeId(@Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR " +
+           "WHERE o.name > :name OR (o.name = :name AND o.id > :id) ORDER BY o.name ASC, o.id ASC")
+    List<Organisation> findPageAfterName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR " +
+           "WHERE o.name < :name OR (o.name = :name AND o.id < :id) ORDER BY o.name DESC, o.id DESC")
+    List<Organisation> findPageBeforeName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR hr WHERE " +
            "LOWER(o.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(o.address) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(hr.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -20,5 +106,71 @@ public interface OrganisationRepository extends JpaRepository<Organisation, Long
            "LOWER(hr.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Organisation> searchOrganisations(@Param("searchTerm") String searchTerm);
     
+    @EntityGraph(attributePaths = "organisationHR")
     List<Organisation> findByNameContainingIgnoreCase(String name);
+    
+    // Bulk operations: resolve the affected ids once, then run set-based statements over them.
+    // Patterns come from containsPattern(); MATCH_ALL matches everything.
+    
+    String MATCH_ALL = "%";
+    
+    /**
+     * A lower-cased LIKE pattern matching values that contain {@code term} literally: the
+     * {@code %}, {@code _} and {@code \} in it are escaped, so user input can't widen the
+     * match. Blank terms give {@link #MATCH_ALL}.
+     */
+    static String containsPattern(String term) {
+        if (term == null || term.trim().isEmpty()) {
+            return MATCH_ALL;
+        }
+        String escaped = term.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+    
+    @Query("SELECT o.id FROM Organisation o " +
+           "WHERE LOWER(o.name) LIKE :namePattern ESCAPE '\\' AND LOWER(o.address) LIKE :addressPattern ESCAPE '\\'")
+    List<Long> findIdsMatching(@Param("namePattern") String namePattern, @Param("addressPattern") String addressPattern);
+    
+    @Query("SELECT o.id FROM Organisation o WHERE o.id IN :ids " +
+           "AND LOWER(o.name) LIKE :namePattern ESCAPE '\\' AND LOWER(o.address) LIKE :addressPattern ESCAPE '\\'")
+    List<Long> findIdsMatching(@Param("ids") Collection<Long> ids,
+                               @Param("namePattern") String namePattern,
+                               @Param("addressPattern") String addressPattern);
+    
+    @Query("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR WHERE o.id IN :ids")
+    List<Organisation> findAllWithHRByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Organisation o SET o.address = :address, o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id IN :ids")
+    int updateAddressByIdIn(@Param("ids") Collection<Long> ids, @Param("address") String address,
+                            @Param("now") Instant now);
+    
+    // Delete the organisation_hr rows first (OrganisationHRRepository.deleteByOrganisationIdIn);
+    // a JPQL delete does not cascade.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Organisation o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Organisation o WHERE o.id = :id AND o.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") long version);
+    
+    // Delta sync: keyset scan over the (updated_at, id) index, bounded above by :until
+    @Query(VIEW_SELECT + " WHERE (o.updatedAt > :since OR (o.updatedAt = :since AND o.id > :id)) " +
+           "AND o.updatedAt <= :until ORDER BY o.updatedAt ASC, o.id ASC")
+    List<OrganisationView> findViewsChangedAfter(@Param("since") Instant since, @Param("id") Long id,
+                                                 @Param("until") Instant until, Pageable pageable);
+    
+    // Rows written before the timestamp columns existed
+    @Modifying
+    @Query("UPDATE Organisation o SET o.createdAt = COALESCE(o.createdAt, :now), o.updatedAt = COALESCE(o.updatedAt, :now) " +
+           "WHERE o.createdAt IS NULL OR o.updatedAt IS NULL")
+    int backfillTimestamps(@Param("now") Instant now);
+    
+    @Query("SELECT new com.academicerp.academicerp.dto.OrganisationSuggestionDto(o.id, o.name) FROM Organisation o")
+    List<OrganisationSuggestionDto> findAllSuggestions();
 }
@@ -0,0 +1,34 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.entity.OrganisationTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrganisationTombstoneRepository extends JpaRepository<OrganisationTombstone, Long> {
+    
+    // Only ids that still exist get a tombstone; run it before the organisation rows are deleted
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO OrganisationTombstone (organisationId, deletedAt) " +
+           "SELECT o.id, :deletedAt FROM Organisation o WHERE o.id IN :ids")
+    int insertForOrganisations(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+    
+    // Keyset scan over the (deleted_at, organisation_id) index; the Pageable is only a row limit
+    @Query("SELECT t FROM OrganisationTombstone t " +
+           "WHERE (t.deletedAt > :since OR (t.deletedAt = :since AND t.organisationId > :id)) AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt ASC, t.organisationId ASC")
+    List<OrganisationTombstone> findDeletedAfter(@Param("since") Instant since, @Param("id") Long id,
+                                                 @Param("until") Instant until, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM OrganisationTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
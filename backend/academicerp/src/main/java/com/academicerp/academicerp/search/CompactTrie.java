@@ -0,0 +1,233 @@
+package com.academicerp.academicerp.search;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Radix trie mapping string keys to sets of long ids. Chains of single-child nodes are
+ * collapsed into one edge label, so the node count stays close to the number of keys
+ * and each node costs a couple of small arrays. Not thread-safe; callers guard it.
+ */
+public class CompactTrie {
+    
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+    
+    private final Node root = new Node(new char[0]);
+    private int size;
+    
+    public void insert(String key, long id) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                leaf.addId(id);
+                node.insertChild(-index - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length) {
+                // Split the edge at the point where the key diverges
+                Node split = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                split.children = new Node[] {child};
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.addId(id)) {
+            size++;
+        }
+    }
+    
+    public boolean remove(String key, long id) {
+        if (remove(root, key, 0, id)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Up to {@code limit} ids whose key starts with {@code prefix}, shortest and then
+     * lexicographically smallest keys first. Ids already in {@code into} are skipped.
+     */
+    public void collect(String prefix, int limit, Set<Long> into) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            int length = Math.min(child.label.length, prefix.length() - i);
+            if (commonPrefix(child.label, prefix, i) < length) {
+                return;
+            }
+            node = child;
+            i += child.label.length;
+        }
+        collect(node, limit, into);
+    }
+    
+    public Set<Long> collect(String prefix, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        collect(prefix, limit, ids);
+        return ids;
+    }
+    
+    /**
+     * Number of (key, id) pairs stored.
+     */
+    public int size() {
+        return size;
+    }
+    
+    // Best-first rather than depth-first: a pre-order walk would list "ab", "abcdef", "ac"
+    // instead of "ab", "ac", "abcdef". Every node sorts after its parent, so a node is
+    // always queued before it can be the smallest.
+    private static void collect(Node start, int limit, Set<Long> into) {
+        PriorityQueue<Entry> queue = new PriorityQueue<>();
+        queue.add(new Entry(start, ""));
+        while (!queue.isEmpty() && into.size() < limit) {
+            Entry entry = queue.poll();
+            for (long id : entry.node.ids) {
+                if (into.size() >= limit) {
+                    return;
+                }
+                into.add(id);
+            }
+            for (Node child : entry.node.children) {
+                queue.add(new Entry(child, entry.suffix + new String(child.label)));
+            }
+        }
+    }
+    
+    private static boolean remove(Node node, String key, int i, long id) {
+        if (i == key.length()) {
+            return node.removeId(id);
+        }
+        int index = node.childIndex(key.charAt(i));
+        if (index < 0) {
+            return false;
+        }
+        Node child = node.children[index];
+        if (key.length() - i < child.label.length || commonPrefix(child.label, key, i) < child.label.length) {
+            return false;
+        }
+        if (!remove(child, key, i + child.label.length, id)) {
+            return false;
+        }
+        
+        // Keep the trie compact: drop empty leaves and fold pass-through nodes into their child
+        if (child.ids.length == 0) {
+            if (child.children.length == 0) {
+                node.removeChild(index);
+            } else if (child.children.length == 1) {
+                Node grandchild = child.children[0];
+                char[] label = Arrays.copyOf(child.label, child.label.length + grandchild.label.length);
+                System.arraycopy(grandchild.label, 0, label, child.label.length, grandchild.label.length);
+                grandchild.label = label;
+                node.children[index] = grandchild;
+            }
+        }
+        return true;
+    }
+    
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+    
+    // suffix is the key below the collect() start node; all entries share the same prefix
+    private record Entry(Node node, String suffix) implements Comparable<Entry> {
+        
+        @Override
+        public int compareTo(Entry other) {
+            int byLength = Integer.compare(suffix.length(), other.suffix.length());
+            return byLength != 0 ? byLength : suffix.compareTo(other.suffix);
+        }
+    }
+    
+    private static final class Node {
+        
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+        
+        private Node(char[] label) {
+            this.label = label;
+        }
+        
+        // Children are kept sorted by their first character
+        private int childIndex(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].label[0];
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+        
+        private void insertChild(int index, Node child) {
+            Node[] expanded = new Node[children.length + 1];
+            System.arraycopy(children, 0, expanded, 0, index);
+            expanded[index] = child;
+            System.arraycopy(children, index, expanded, index + 1, children.length - index);
+            children = expanded;
+        }
+        
+        private void removeChild(int index) {
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+        
+        private boolean addId(long id) {
+            for (long existing : ids) {
+                if (existing == id) {
+                    return false;
+                }
+            }
+            long[] expanded = Arrays.copyOf(ids, ids.length + 1);
+            expanded[ids.length] = id;
+            ids = expanded;
+            return true;
+        }
+        
+        private boolean removeId(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    long[] shrunk = new long[ids.length - 1];
+                    System.arraycopy(ids, 0, shrunk, 0, i);
+                    System.arraycopy(ids, i + 1, shrunk, i, ids.length - i - 1);
+                    ids = shrunk.length == 0 ? NO_IDS : shrunk;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.academicerp.academicerp.search;
+
+import com.academicerp.academicerp.dto.OrganisationDeltaDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
+import com.academicerp.academicerp.service.OrganisationSyncService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Follows organisation changes committed on any node through delta sync, for in-memory
+ * structures that otherwise only hear of this node's {@link OrganisationChangedEvent}s.
+ * Callers poll from one thread at a time.
+ */
+final class OrganisationChangeTail {
+    
+    // A write on another node can commit a while after the timestamps it carries
+    private static final Duration START_OVERLAP = Duration.ofMinutes(1);
+    
+    private final OrganisationSyncService organisationSyncService;
+    private volatile String watermark;
+    
+    OrganisationChangeTail(OrganisationSyncService organisationSyncService) {
+        this.organisationSyncService = organisationSyncService;
+    }
+    
+    /**
+     * Call just before loading a snapshot. Changes from the minute before it are replayed
+     * by the first poll, which is harmless since applying a change twice has no effect.
+     */
+    void startAt(Instant snapshotStart) {
+        watermark = organisationSyncService.watermarkAt(snapshotStart.minus(START_OVERLAP));
+    }
+    
+    /**
+     * Hands every change committed since the previous poll to {@code apply}, one page of
+     * upserted organisations and deleted ids at a time. Does nothing before {@link #startAt}.
+     *
+     * @return false when the tail has fallen behind the kept tombstones and the caller must rebuild
+     */
+    boolean poll(BiConsumer<List<OrganisationResponseDto>, List<Long>> apply) {
+        if (watermark == null) {
+            return true;
+        }
+        OrganisationDeltaDto page;
+        do {
+            page = organisationSyncService.getChanges(watermark, OrganisationSyncService.MAX_LIMIT);
+            if (page.isFullResync()) {
+                watermark = null;
+                return false;
+            }
+            if (!page.getChanged().isEmpty() || !page.getDeleted().isEmpty()) {
+                apply.accept(page.getChanged(), page.getDeleted());
+            }
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package com.academicerp.academicerp.search;
+
+import com.academicerp.academicerp.dto.OrganisationHRDto;
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.util.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bloom filter of every HR email (trimmed, lower-cased) in front of the uniqueness checks.
+ * Most checks are for new emails, and a {@code false} from {@link #mightExist} answers them
+ * without a query; only possible matches go to the database. The filter is rebuilt from the
+ * table periodically, which drops emails that were deleted or changed.
+ * <p>
+ * Only this node's writes reach the filter as they happen. An email added on another node is
+ * missing until the next rebuild, and a {@code false} for it would be wrong, so the filter is
+ * only correct with a single instance; set {@code organisation.hr-email.bloom.enabled=false}
+ * when several share the database, and every check goes to the database. The unique
+ * constraint on organisation_hr.email stays the final guard either way.
+ */
+@Component
+@Slf4j
+public class OrganisationHREmailFilter {
+    
+    private final OrganisationHRRepository organisationHRRepository;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final Counter definitelyAbsent;
+    private final Counter possiblyPresent;
+    
+    // Emails added on this node since shortly before the last rebuild (email -> added at millis),
+    // re-applied to every new filter so a rebuild racing with a write can't drop them
+    private final Map<String, Long> recentEmails = new ConcurrentHashMap<>();
+    private final Object filterLock = new Object();
+    
+    private volatile ScalableBloomFilter emails;
+    
+    public OrganisationHREmailFilter(
+            OrganisationHRRepository organisationHRRepository,
+            MeterRegistry meterRegistry,
+            @Value("${organisation.hr-email.bloom.enabled:true}") boolean enabled,
+            @Value("${organisation.hr-email.bloom.expected-insertions:10000}") long expectedEmails,
+            @Value("${organisation.hr-email.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.organisationHRRepository = organisationHRRepository;
+        this.enabled = enabled;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.definitelyAbsent = Counter.builder("organisation.hr.email.checks")
+                .tag("path", "bloom")
+                .description("HR email checks answered by the Bloom filter alone")
+                .register(meterRegistry);
+        this.possiblyPresent = Counter.builder("organisation.hr.email.checks")
+                .tag("path", "store")
+                .description("HR email checks that had to query organisation_hr")
+                .register(meterRegistry);
+        Gauge.builder("organisation.hr.email.bloom.stages", this, filter -> filter.emails.stageCount())
+                .description("Stages of the HR email Bloom filter; grows when there are more emails than expected")
+                .register(meterRegistry);
+        this.emails = ScalableBloomFilter.create(expectedEmails, falsePositiveRate);
+    }
+    
+    @PostConstruct
+    void loadEmails() {
+        rebuild();
+    }
+    
+    /**
+     * {@code false} means no HR contact has this email; {@code true} means the database has to be
+     * asked. Always {@code true} when the filter is disabled.
+     */
+    public boolean mightExist(String email) {
+        if (email == null) {
+            return false;
+        }
+        if (enabled && !emails.mightContain(normalize(email))) {
+            definitelyAbsent.increment();
+            return false;
+        }
+        possiblyPresent.increment();
+        return true;
+    }
+    
+    public void add(String email) {
+        if (email == null || !enabled) {
+            return;
+        }
+        String normalized = normalize(email);
+        synchronized (filterLock) {
+            recentEmails.put(normalized, System.currentTimeMillis());
+            emails.put(normalized);
+        }
+    }
+    
+    // Deliberately not a @TransactionalEventListener: events are published inside the writing
+    // transaction, so the email is in the filter before the row can be seen. A rollback only
+    // leaves a false positive, which the next rebuild removes.
+    @EventListener
+    public void onOrganisationChanged(OrganisationChangedEvent event) {
+        if (event.getOrganisation() == null) {
+            return;
+        }
+        OrganisationHRDto hrDetails = event.getOrganisation().getHrDetails();
+        if (hrDetails != null) {
+            add(hrDetails.getEmail());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${organisation.hr-email.bloom.rebuild-interval:PT30M}",
+               initialDelayString = "${organisation.hr-email.bloom.rebuild-interval:PT30M}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        List<String> existing = organisationHRRepository.findAllEmails();
+        ScalableBloomFilter filter = ScalableBloomFilter.create(
+                Math.max(expectedEmails, existing.size() * 2L), falsePositiveRate);
+        existing.forEach(email -> filter.put(normalize(email)));
+        synchronized (filterLock) {
+            recentEmails.keySet().forEach(filter::put);
+            emails = filter;
+        }
+        // Emails added well before the query were committed and are part of the snapshot just loaded
+        recentEmails.values().removeIf(addedAt -> addedAt < startedAt - 60_000);
+        log.debug("HR email filter rebuilt: {} emails, {} bits", existing.size(), filter.bitSize());
+    }
+    
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,187 @@
+package com.academicerp.academicerp.search;
+
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.dto.OrganisationSuggestionDto;
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import com.academicerp.academicerp.service.OrganisationSyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over organisation names held in two {@link CompactTrie}s: one keyed by the
+ * whole normalized name, one by every later word of it ("institute of technology" is
+ * also found under "technology"). Whole-name prefix matches are listed first.
+ * <p>
+ * Kept current the same way as {@link OrganisationSearchIndex}: this node's changes as they
+ * commit, every node's through delta sync every {@code organisation.search.catch-up-interval}.
+ */
+@Component
+@Slf4j
+public class OrganisationNameSuggester {
+    
+    private final OrganisationRepository organisationRepository;
+    private final OrganisationChangeTail changeTail;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private CompactTrie names = new CompactTrie();
+    private CompactTrie words = new CompactTrie();
+    private Map<Long, String> displayNames = new HashMap<>();
+    
+    // Changes committed while a rebuild is loading rows; replayed on top of the loaded snapshot
+    private List<OrganisationChangedEvent> pendingChanges;
+    
+    public OrganisationNameSuggester(OrganisationRepository organisationRepository,
+                                     OrganisationSyncService organisationSyncService) {
+        this.organisationRepository = organisationRepository;
+        this.changeTail = new OrganisationChangeTail(organisationSyncService);
+    }
+    
+    // Synchronized with catchUp() so a poll can't apply changes to the tries a rebuild is replacing
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        changeTail.startAt(Instant.now());
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        List<OrganisationSuggestionDto> organisations = organisationRepository.findAllSuggestions();
+        
+        lock.writeLock().lock();
+        try {
+            names = new CompactTrie();
+            words = new CompactTrie();
+            displayNames = new HashMap<>();
+            organisations.forEach(organisation -> add(organisation.getId(), organisation.getName()));
+            pendingChanges.forEach(this::apply);
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Organisation name suggester built: {} names, {} word keys", names.size(), words.size());
+    }
+    
+    /**
+     * Applies changes committed on any node since the last catch-up.
+     */
+    @Scheduled(fixedDelayString = "${organisation.search.catch-up-interval:PT10S}",
+               initialDelayString = "${organisation.search.catch-up-interval:PT10S}")
+    public synchronized void catchUp() {
+        if (!changeTail.poll(this::applyPage)) {
+            rebuild();
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onOrganisationChanged(OrganisationChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<OrganisationSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            names.collect(key, limit, ids);
+            if (ids.size() < limit) {
+                words.collect(key, limit, ids);
+            }
+            List<OrganisationSuggestionDto> suggestions = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                suggestions.add(new OrganisationSuggestionDto(id, displayNames.get(id)));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void apply(OrganisationChangedEvent event) {
+        remove(event.getOrganisationId());
+        if (event.getType() != OrganisationChangedEvent.Type.DELETED && event.getOrganisation() != null) {
+            add(event.getOrganisationId(), event.getOrganisation().getName());
+        }
+    }
+    
+    private void applyPage(List<OrganisationResponseDto> changed, List<Long> deleted) {
+        lock.writeLock().lock();
+        try {
+            for (OrganisationResponseDto organisation : changed) {
+                remove(organisation.getId());
+                add(organisation.getId(), organisation.getName());
+            }
+            deleted.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void add(Long id, String name) {
+        if (name == null) {
+            return;
+        }
+        String key = normalize(name);
+        displayNames.put(id, name);
+        names.insert(key, id);
+        for (String wordKey : wordKeys(key)) {
+            words.insert(wordKey, id);
+        }
+    }
+    
+    private void remove(Long id) {
+        String name = displayNames.remove(id);
+        if (name == null) {
+            return;
+        }
+        String key = normalize(name);
+        names.remove(key, id);
+        for (String wordKey : wordKeys(key)) {
+            words.remove(wordKey, id);
+        }
+    }
+    
+    private static List<String> wordKeys(String key) {
+        List<String> keys = new ArrayList<>();
+        int space = key.indexOf(' ');
+        while (space >= 0) {
+            keys.add(key.substring(space + 1));
+            space = key.indexOf(' ', space + 1);
+        }
+        return keys;
+    }
+    
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,303 @@
+package com.academicerp.academicerp.search;
+
+import com.academicerp.academicerp.dto.OrganisationHRDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import com.academicerp.academicerp.service.OrganisationSyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram inverted index over organisation name, address and HR name/email.
+ * A search intersects the posting lists of the term's trigrams and then confirms each
+ * candidate with a substring check, so results match the database {@code LIKE '%term%'}
+ * search exactly while never scanning the table.
+ * <p>
+ * Built on startup. This node's changes are applied as their {@link OrganisationChangedEvent}s
+ * commit, and every node's through delta sync every {@code organisation.search.catch-up-interval},
+ * so a write made elsewhere shows up in results within that interval plus
+ * {@code organisation.sync.commit-lag}. With {@code organisation.search.index.enabled=false}
+ * nothing is held in memory and every search goes to the database.
+ */
+@Component
+@Slf4j
+public class OrganisationSearchIndex {
+    
+    static final int GRAM = 3;
+    
+    private final OrganisationRepository organisationRepository;
+    private final OrganisationMapper organisationMapper;
+    private final OrganisationChangeTail changeTail;
+    private final boolean enabled;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+    private boolean ready;
+    
+    // Changes committed while a rebuild is loading rows; replayed on top of the loaded snapshot
+    private List<OrganisationChangedEvent> pendingChanges;
+    
+    public OrganisationSearchIndex(
+            OrganisationRepository organisationRepository,
+            OrganisationMapper organisationMapper,
+            OrganisationSyncService organisationSyncService,
+            @Value("${organisation.search.index.enabled:true}") boolean enabled) {
+        this.organisationRepository = organisationRepository;
+        this.organisationMapper = organisationMapper;
+        this.changeTail = new OrganisationChangeTail(organisationSyncService);
+        this.enabled = enabled;
+    }
+    
+    // Synchronized with catchUp() so a poll can't apply changes to the maps a rebuild is replacing
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            log.info("Organisation search index disabled, searches go to the database");
+            return;
+        }
+        changeTail.startAt(Instant.now());
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        List<OrganisationResponseDto> organisations = organisationRepository.findAllViews().stream()
+                .map(organisationMapper::toResponseDto)
+                .collect(Collectors.toList());
+        
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            documents = new HashMap<>();
+            organisations.forEach(this::index);
+            pendingChanges.forEach(this::apply);
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Organisation search index built: {} organisations, {} trigrams", documents.size(), postings.size());
+    }
+    
+    /**
+     * Applies changes committed on any node since the last catch-up.
+     */
+    @Scheduled(fixedDelayString = "${organisation.search.catch-up-interval:PT10S}",
+               initialDelayString = "${organisation.search.catch-up-interval:PT10S}")
+    public synchronized void catchUp() {
+        if (!changeTail.poll(this::applyPage)) {
+            rebuild();
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onOrganisationChanged(OrganisationChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Ranked matches for the term, or empty when the index can't answer it (not built yet,
+     * or the term is shorter than a trigram) and the caller should query the database.
+     */
+    public Optional<List<OrganisationResponseDto>> search(String searchTerm) {
+        String term = normalize(searchTerm);
+        if (term.length() < GRAM) {
+            return Optional.empty();
+        }
+        
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : trigrams(term)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Optional.of(Collections.emptyList());
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            
+            List<Match> matches = new ArrayList<>();
+            for (Long id : lists.get(0)) {
+                if (!containsInAll(id, lists)) {
+                    continue;
+                }
+                Document document = documents.get(id);
+                int score = document.score(term);
+                if (score > 0) {
+                    matches.add(new Match(document, score));
+                }
+            }
+            
+            matches.sort(Comparator.comparingInt(Match::score).reversed()
+                    .thenComparing(match -> match.document().name())
+                    .thenComparing(match -> match.document().organisation().getId()));
+            List<OrganisationResponseDto> results = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                results.add(match.document().organisation());
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void apply(OrganisationChangedEvent event) {
+        remove(event.getOrganisationId());
+        if (event.getType() != OrganisationChangedEvent.Type.DELETED && event.getOrganisation() != null) {
+            index(event.getOrganisation());
+        }
+    }
+    
+    private void applyPage(List<OrganisationResponseDto> changed, List<Long> deleted) {
+        lock.writeLock().lock();
+        try {
+            for (OrganisationResponseDto organisation : changed) {
+                remove(organisation.getId());
+                index(organisation);
+            }
+            deleted.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void index(OrganisationResponseDto organisation) {
+        Document document = Document.of(organisation);
+        documents.put(organisation.getId(), document);
+        for (String gram : document.trigrams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(organisation.getId());
+        }
+    }
+    
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.trigrams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+    
+    private static boolean containsInAll(Long id, List<Set<Long>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+    
+    private record Match(Document document, int score) {
+    }
+    
+    /**
+     * Normalized searchable fields of one organisation plus the DTO returned on a hit.
+     */
+    private record Document(OrganisationResponseDto organisation, String name, String address,
+                            String hrFirstName, String hrLastName, String hrEmail) {
+        
+        static Document of(OrganisationResponseDto organisation) {
+            OrganisationHRDto hr = organisation.getHrDetails();
+            return new Document(
+                    organisation,
+                    normalize(organisation.getName()),
+                    normalize(organisation.getAddress()),
+                    hr != null ? normalize(hr.getFirstName()) : "",
+                    hr != null ? normalize(hr.getLastName()) : "",
+                    hr != null ? normalize(hr.getEmail()) : ""
+            );
+        }
+        
+        Set<String> trigrams() {
+            Set<String> grams = new HashSet<>();
+            grams.addAll(OrganisationSearchIndex.trigrams(name));
+            grams.addAll(OrganisationSearchIndex.trigrams(address));
+            grams.addAll(OrganisationSearchIndex.trigrams(hrFirstName));
+            grams.addAll(OrganisationSearchIndex.trigrams(hrLastName));
+            grams.addAll(OrganisationSearchIndex.trigrams(hrEmail));
+            return grams;
+        }
+        
+        /**
+         * Relevance of this organisation for the term; 0 when no field actually contains it
+         * (the trigrams matched but were spread across fields or positions).
+         */
+        int score(String term) {
+            int score = 0;
+            if (name.equals(term)) {
+                score += 100;
+            } else if (name.startsWith(term)) {
+                score += 60;
+            } else if (name.contains(term)) {
+                score += 40;
+            }
+            if (hrFirstName.contains(term) || hrLastName.contains(term)) {
+                score += 20;
+            }
+            if (hrEmail.contains(term)) {
+                score += 15;
+            }
+            if (address.contains(term)) {
+                score += 10;
+            }
+            return score;
+        }
+    }
+}
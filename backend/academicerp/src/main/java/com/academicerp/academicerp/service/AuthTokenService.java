@@ -0,0 +1,68 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.dto.AuthTokensDto;
+import com.academicerp.academicerp.entity.Employee;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Issues access/refresh token pairs. The employee record is read once here and
+ * copied into the access token, so the authentication filter never has to query it.
+ * Access tokens are short-lived; clients trade the refresh token for a new pair,
+ * which re-reads the employee and therefore bounds how stale the claims can be.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthTokenService {
+    
+    private final JwtService jwtService;
+    private final EmployeeService employeeService;
+    private final TokenRevocationService tokenRevocationService;
+    
+    public AuthTokensDto issueTokens(String email) {
+        Employee employee = employeeService.findByEmail(email).orElse(null);
+        List<String> roles = employeeService.getGrantedRoles(employee);
+        
+        String token = jwtService.generateToken(email, employee, roles);
+        String refreshToken = jwtService.generateRefreshToken(email);
+        
+        return new AuthTokensDto(
+                token,
+                refreshToken,
+                jwtService.getAccessTokenExpirationMillis() / 1000,
+                email,
+                roles,
+                roles.contains(EmployeeService.ROLE_OUTREACH)
+        );
+    }
+    
+    public AuthTokensDto refresh(String refreshToken) {
+        Claims claims = jwtService.extractAllClaims(refreshToken);
+        if (!jwtService.isRefreshToken(claims) || !jwtService.isTokenValid(claims, claims.getSubject())) {
+            throw new JwtException("Not a valid refresh token");
+        }
+        // Refresh tokens are single-use: the presented one is revoked as the new pair is issued
+        tokenRevocationService.revoke(claims);
+        return issueTokens(claims.getSubject());
+    }
+    
+    /**
+     * Revokes the given tokens; tokens that are already invalid are ignored.
+     */
+    public void revokeTokens(String... tokens) {
+        for (String token : tokens) {
+            if (token == null) {
+                continue;
+            }
+            try {
+                tokenRevocationService.revoke(jwtService.extractAllClaims(token));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired or forged tokens can't be used anyway
+            }
+        }
+    }
+}
@@ -1,33 +1,61 @@
 package com.academicerp.academicerp.service;
 
+import com.academicerp.academicerp.cache.EmployeeDirectoryCache;
 import com.academicerp.academicerp.entity.Employee;
 import com.academicerp.academicerp.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeService {
     
+    public static final String ROLE_EMPLOYEE = "EMPLOYEE";
+    public static final String ROLE_OUTREACH = "OUTREACH";
+    private static final String OUTREACH_DEPARTMENT = "Outreach";
+    
     private final EmployeeRepository employeeRepository;
+    private final EmployeeDirectoryCache employeeDirectoryCache;
     
     public Optional<Employee> findByEmail(String email) {
-        return employeeRepository.findByEmail(email);
+        return employeeDirectoryCache.findByEmail(email);
     }
     
     public boolean isValidEmployee(String email) {
-        return employeeRepository.existsByEmail(email);
+        return employeeDirectoryCache.findByEmail(email).isPresent();
     }
     
     public boolean isOutreachEmployee(String email) {
-        Optional<Employee> employee = employeeRepository.findByEmail(email);
-        return employee.isPresent() && "Outreach".equalsIgnoreCase(employee.get().getDepartment());
+        Optional<Employee> employee = employeeDirectoryCache.findByEmail(email);
+        return employee.isPresent() && isOutreach(employee.get());
+    }
+    
+    /**
+     * Roles granted to the given employee, without the {@code ROLE_} prefix.
+     * Non-employees ({@code null}) get no roles.
+     */
+    public List<String> getGrantedRoles(Employee employee) {
+        List<String> roles = new ArrayList<>();
+        if (employee == null) {
+            return roles;
+        }
+        roles.add(ROLE_EMPLOYEE);
+        if (isOutreach(employee)) {
+            roles.add(ROLE_OUTREACH);
+        }
+        return roles;
+    }
+    
+    private boolean isOutreach(Employee employee) {
+        return OUTREACH_DEPARTMENT.equalsIgnoreCase(employee.getDepartment());
     }
     
     public Employee createEmployeeIfNotExists(String email, String firstName, String lastName) {
-        Optional<Employee> existingEmployee = employeeRepository.findByEmail(email);
+        Optional<Employee> existingEmployee = employeeDirectoryCache.findByEmail(email);
         if (existingEmployee.isPresent()) {
             return existingEmployee.get();
         }
@@ -42,6 +70,9 @@ public class EmployeeService {
                 .lastName(safeLastName)
                 .build();
         
-        return employeeRepository.save(newEmployee);
+        Employee savedEmployee = employeeRepository.save(newEmployee);
+        // Drop the cached "not an employee" answer for this email
+        employeeDirectoryCache.invalidate(email);
+        return savedEmployee;
     }
 }
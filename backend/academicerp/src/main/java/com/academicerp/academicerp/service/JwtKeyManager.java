@@ -0,0 +1,218 @@
+package com.academicerp.academicerp.service;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the keys used to sign and verify JWTs. Key objects are built once and reused.
+ * <p>
+ * In {@code HS256} mode the shared {@code jwt.secret} is used for both. In {@code RS256}
+ * mode tokens are signed with an RSA private key and carry its {@code kid}; the public
+ * halves are published through the JWKS endpoint so other nodes and sidecars can verify
+ * tokens locally. Configured PEM keys are used as-is (share them across our own nodes);
+ * otherwise a key pair is generated and rotated every {@code jwt.signing.rotation-interval},
+ * with retired public keys kept until every token they signed has expired.
+ */
+@Component
+@Slf4j
+public class JwtKeyManager {
+    
+    private final SignatureAlgorithm algorithm;
+    private final String secret;
+    private final Resource privateKeyResource;
+    private final Resource publicKeyResource;
+    private final int rsaKeySize;
+    private final Duration retention;
+    
+    private final Map<String, VerificationKey> verificationKeys = new ConcurrentHashMap<>();
+    private volatile SigningKey activeKey;
+    private boolean generatedKeys;
+    
+    public JwtKeyManager(
+            @Value("${jwt.signing.algorithm:HS256}") SignatureAlgorithm algorithm,
+            @Value("${jwt.secret:mySecretKey}") String secret,
+            @Value("${jwt.signing.rsa.private-key:#{null}}") Resource privateKeyResource,
+            @Value("${jwt.signing.rsa.public-key:#{null}}") Resource publicKeyResource,
+            @Value("${jwt.signing.rsa.key-size:2048}") int rsaKeySize,
+            @Value("${jwt.refresh-expiration:86400000}") long refreshExpirationMillis) {
+        if (algorithm != SignatureAlgorithm.HS256 && algorithm != SignatureAlgorithm.RS256) {
+            throw new IllegalArgumentException("Unsupported jwt.signing.algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.privateKeyResource = privateKeyResource;
+        this.publicKeyResource = publicKeyResource;
+        this.rsaKeySize = rsaKeySize;
+        // Longest-lived token we issue, plus some slack for clock skew
+        this.retention = Duration.ofMillis(refreshExpirationMillis).plusMinutes(5);
+    }
+    
+    @PostConstruct
+    void initKeys() throws IOException, GeneralSecurityException {
+        if (algorithm == SignatureAlgorithm.HS256) {
+            Key hmacKey = Keys.hmacShaKeyFor(secret.getBytes());
+            activeKey = new SigningKey(null, hmacKey);
+            return;
+        }
+        
+        if (privateKeyResource != null && publicKeyResource != null) {
+            PrivateKey privateKey = readPrivateKey(privateKeyResource);
+            PublicKey publicKey = readPublicKey(publicKeyResource);
+            activate(keyId(publicKey), privateKey, publicKey);
+        } else {
+            log.warn("No RSA key pair configured; generating one. Tokens are only verifiable via this node's JWKS.");
+            generatedKeys = true;
+            rotate();
+        }
+    }
+    
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+    
+    public Key getSigningKey() {
+        return activeKey.key();
+    }
+    
+    /**
+     * Key id to put in the JWS header, or {@code null} for the shared-secret mode.
+     */
+    public String getActiveKeyId() {
+        return activeKey.keyId();
+    }
+    
+    /**
+     * Key that verifies a token with the given {@code kid} header, or {@code null} if unknown.
+     */
+    public Key getVerificationKey(String keyId) {
+        if (algorithm == SignatureAlgorithm.HS256) {
+            return activeKey.key();
+        }
+        if (keyId == null) {
+            return null;
+        }
+        VerificationKey key = verificationKeys.get(keyId);
+        return key != null ? key.publicKey() : null;
+    }
+    
+    /**
+     * Public keys as a JWK set ({@code {"keys": [...]}}); empty in shared-secret mode.
+     */
+    public Map<String, Object> getJwkSet() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (Map.Entry<String, VerificationKey> entry : verificationKeys.entrySet()) {
+            RSAPublicKey publicKey = (RSAPublicKey) entry.getValue().publicKey();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", algorithm.getValue());
+            jwk.put("kid", entry.getKey());
+            jwk.put("n", base64Url(publicKey.getModulus()));
+            jwk.put("e", base64Url(publicKey.getPublicExponent()));
+            keys.add(jwk);
+        }
+        Map<String, Object> jwkSet = new LinkedHashMap<>();
+        jwkSet.put("keys", keys);
+        return jwkSet;
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-interval:P1D}",
+               initialDelayString = "${jwt.signing.rotation-interval:P1D}")
+    public void scheduledRotation() throws GeneralSecurityException {
+        if (generatedKeys) {
+            rotate();
+        }
+    }
+    
+    private void rotate() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(rsaKeySize);
+        KeyPair keyPair = generator.generateKeyPair();
+        activate(UUID.randomUUID().toString(), keyPair.getPrivate(), keyPair.getPublic());
+        
+        Instant now = Instant.now();
+        verificationKeys.values().removeIf(key -> key.retireAt() != null && key.retireAt().isBefore(now));
+        log.info("Rotated JWT signing key, active kid={}", activeKey.keyId());
+    }
+    
+    private void activate(String keyId, PrivateKey privateKey, PublicKey publicKey) {
+        SigningKey previous = activeKey;
+        verificationKeys.put(keyId, new VerificationKey(publicKey, null));
+        activeKey = new SigningKey(keyId, privateKey);
+        if (previous != null && previous.keyId() != null) {
+            verificationKeys.computeIfPresent(previous.keyId(),
+                    (id, key) -> new VerificationKey(key.publicKey(), Instant.now().plus(retention)));
+        }
+    }
+    
+    private static PrivateKey readPrivateKey(Resource resource) throws IOException, GeneralSecurityException {
+        byte[] der = readPem(resource, "PRIVATE KEY");
+        return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(der));
+    }
+    
+    private static PublicKey readPublicKey(Resource resource) throws IOException, GeneralSecurityException {
+        byte[] der = readPem(resource, "PUBLIC KEY");
+        return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(der));
+    }
+    
+    private static byte[] readPem(Resource resource, String type) throws IOException {
+        String pem = resource.getContentAsString(StandardCharsets.US_ASCII)
+                .replace("-----BEGIN " + type + "-----", "")
+                .replace("-----END " + type + "-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(pem);
+    }
+    
+    // Derived from the key itself so every node loading the same PEM pair agrees on the kid
+    private static String keyId(PublicKey publicKey) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 16);
+    }
+    
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // Drop the sign byte BigInteger adds for values with the top bit set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] unsigned = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, unsigned, 0, unsigned.length);
+            bytes = unsigned;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    private record SigningKey(String keyId, Key key) {
+    }
+    
+    private record VerificationKey(PublicKey publicKey, Instant retireAt) {
+    }
+}
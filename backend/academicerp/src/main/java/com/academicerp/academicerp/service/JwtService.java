@@ -1,27 +1,68 @@
 package com.academicerp.academicerp.service;
 
+import com.academicerp.academicerp.cache.VerifiedTokenCache;
+import com.academicerp.academicerp.entity.Employee;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
     
-    @Value("${jwt.secret:mySecretKey}")
-    private String secret;
+    public static final String CLAIM_EMPLOYEE_ID = "eid";
+    public static final String CLAIM_DEPARTMENT = "dept";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    public static final String TOKEN_TYPE_STREAM = "stream";
     
-    @Value("${jwt.expiration:86400000}")
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtKeyManager jwtKeyManager;
+    
+    @Value("${jwt.expiration:900000}")
     private Long jwtExpiration;
     
+    @Value("${jwt.refresh-expiration:86400000}")
+    private Long refreshExpiration;
+    
+    @Value("${jwt.stream-ticket-expiration:30000}")
+    private Long streamTicketExpiration;
+    
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void initParser() {
+        // The parser is immutable and thread-safe; keys are looked up by kid from JwtKeyManager
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return jwtKeyManager.getVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -31,12 +72,65 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
-    public String generateToken(String userEmail) {
-        return generateToken(new HashMap<>(), userEmail);
+    /**
+     * Issues an access token that carries everything the authentication filter needs
+     * (employee id, department and granted roles), so requests can be authorized
+     * without looking the employee up again. {@code employee} is null for non-employees.
+     */
+    public String generateToken(String userEmail, Employee employee, Collection<String> roles) {
+        Map<String, Object> claims = new HashMap<>();
+        if (employee != null) {
+            claims.put(CLAIM_EMPLOYEE_ID, employee.getEmployeeId());
+            claims.put(CLAIM_DEPARTMENT, employee.getDepartment());
+        }
+        claims.put(CLAIM_ROLES, new ArrayList<>(roles));
+        return buildToken(claims, userEmail, jwtExpiration);
+    }
+    
+    public String generateRefreshToken(String userEmail) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH);
+        return buildToken(claims, userEmail, refreshExpiration);
+    }
+    
+    /**
+     * Issues a ticket for opening the organisation change stream. EventSource can only pass
+     * it in the URL, where proxies and access logs may record it, so it lives for seconds and
+     * the authentication filter accepts it on the stream path only.
+     */
+    public String generateStreamTicket(String userEmail, Collection<String> roles) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_STREAM);
+        claims.put(CLAIM_ROLES, new ArrayList<>(roles));
+        return buildToken(claims, userEmail, streamTicketExpiration);
+    }
+    
+    public long getAccessTokenExpirationMillis() {
+        return jwtExpiration;
+    }
+    
+    public long getStreamTicketExpirationMillis() {
+        return streamTicketExpiration;
     }
     
-    public String generateToken(Map<String, Object> extraClaims, String userEmail) {
-        return buildToken(extraClaims, userEmail, jwtExpiration);
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+    
+    public boolean isStreamTicket(Claims claims) {
+        return TOKEN_TYPE_STREAM.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+    
+    public List<String> extractRoles(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(roles instanceof Collection<?> values)) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(String.valueOf(value));
+        }
+        return result;
     }
     
     private String buildToken(
@@ -44,40 +138,42 @@ public class JwtService {
             String userEmail,
             long expiration
     ) {
-        return Jwts
+        JwtBuilder builder = Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userEmail)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expiration));
+        String keyId = jwtKeyManager.getActiveKeyId();
+        if (keyId != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyId);
+        }
+        return builder
+                .signWith(jwtKeyManager.getSigningKey(), jwtKeyManager.getAlgorithm())
                 .compact();
     }
     
     public boolean isTokenValid(String token, String userEmail) {
-        final String username = extractUsername(token);
-        return (username.equals(userEmail)) && !isTokenExpired(token);
-    }
-    
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return isTokenValid(extractAllClaims(token), userEmail);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public boolean isTokenValid(Claims claims, String userEmail) {
+        return claims.getSubject().equals(userEmail)
+                && !claims.getExpiration().before(new Date())
+                && !tokenRevocationService.isRevoked(claims.getId());
     }
     
-    private Key getSignInKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Returns the verified claims of the token, parsing and checking the signature only
+     * the first time a given token is seen.
+     */
+    public Claims extractAllClaims(String token) {
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedTokenCache.put(token, claims);
+        }
+        return claims;
     }
 }
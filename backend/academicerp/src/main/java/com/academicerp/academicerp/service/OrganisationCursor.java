@@ -0,0 +1,55 @@
+package com.academicerp.academicerp.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated organisation listing. Clients only ever see the
+ * opaque Base64 form; it records the sort it was issued for, whether it points
+ * forwards or backwards, and the sort key of the boundary row.
+ */
+record OrganisationCursor(String sortBy, boolean ascending, boolean forward, String name, long id) {
+    
+    private static final int VERSION = 1;
+    
+    String encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(ascending);
+            out.writeBoolean(forward);
+            out.writeBoolean(name != null);
+            if (name != null) {
+                out.writeUTF(name);
+            }
+            out.writeLong(id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    static OrganisationCursor decode(String cursor) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor");
+            }
+            String sortBy = in.readUTF();
+            boolean ascending = in.readBoolean();
+            boolean forward = in.readBoolean();
+            String name = in.readBoolean() ? in.readUTF() : null;
+            long id = in.readLong();
+            return new OrganisationCursor(sortBy, ascending, forward, name, id);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
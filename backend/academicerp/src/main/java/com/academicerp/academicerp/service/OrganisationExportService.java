@@ -0,0 +1,138 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.dto.OrganisationHRDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every organisation to an output stream as NDJSON or CSV without ever holding
+ * the full result in memory: rows are read through a forward-only JDBC stream and the
+ * persistence context is cleared every few rows, so heap use stays flat whatever the table size.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrganisationExportService {
+    
+    public enum Format {
+        NDJSON, CSV
+    }
+    
+    private static final String CSV_HEADER = "id,name,address,hrFirstName,hrLastName,hrEmail,hrContactNumber";
+    private static final int CLEAR_INTERVAL = 200;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final PlatformTransactionManager transactionManager;
+    private final OrganisationMapper organisationMapper;
+    private final ObjectMapper objectMapper;
+    
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one instead of buffering the result set
+    @Value("${organisation.export.fetch-size:-2147483648}")
+    private int fetchSize;
+    
+    /**
+     * Streams all organisations to {@code out} in id order. Runs in its own read-only
+     * transaction, so it can be called from a {@code StreamingResponseBody}.
+     */
+    public void export(Format format, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<Organisation> rows = streamOrganisations()) {
+                if (format == Format.CSV) {
+                    writeCsv(rows.iterator(), out);
+                } else {
+                    writeNdjson(rows.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private Stream<Organisation> streamOrganisations() {
+        return entityManager
+                .createQuery("SELECT o FROM Organisation o LEFT JOIN FETCH o.organisationHR ORDER BY o.id", Organisation.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+    
+    private void writeNdjson(Iterator<Organisation> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        int count = 0;
+        while (rows.hasNext()) {
+            OrganisationResponseDto dto = organisationMapper.toResponseDto(rows.next());
+            objectMapper.writeValue(generator, dto);
+            generator.writeRaw('\n');
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+                generator.flush();
+            }
+        }
+        generator.flush();
+    }
+    
+    private void writeCsv(Iterator<Organisation> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        int count = 0;
+        while (rows.hasNext()) {
+            OrganisationResponseDto dto = organisationMapper.toResponseDto(rows.next());
+            OrganisationHRDto hr = dto.getHrDetails();
+            writer.write(String.valueOf(dto.getId()));
+            writeCsvField(writer, dto.getName());
+            writeCsvField(writer, dto.getAddress());
+            writeCsvField(writer, hr != null ? hr.getFirstName() : null);
+            writeCsvField(writer, hr != null ? hr.getLastName() : null);
+            writeCsvField(writer, hr != null ? hr.getEmail() : null);
+            writeCsvField(writer, hr != null ? hr.getContactNumber() : null);
+            writer.write("\r\n");
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+    
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,388 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.dto.OrganisationHRDto;
+import com.academicerp.academicerp.dto.OrganisationImportErrorDto;
+import com.academicerp.academicerp.dto.OrganisationImportResultDto;
+import com.academicerp.academicerp.dto.OrganisationRequestDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
+import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.search.OrganisationHREmailFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Creates organisations (with their HR contact) in bulk from CSV or NDJSON. Rows are read
+ * in chunks; each chunk is checked for existing HR emails with a single IN query and then
+ * persisted in one transaction, flushed every JDBC batch. A chunk that fails to commit is
+ * retried row by row, so one bad row only costs itself.
+ */
+@Service
+@Slf4j
+public class OrganisationImportService {
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    static final List<String> CSV_COLUMNS =
+            List.of("name", "address", "hrFirstName", "hrLastName", "hrEmail", "hrContactNumber");
+    private static final int CHUNK_SIZE = 500;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final OrganisationHRRepository organisationHRRepository;
+    private final OrganisationHREmailFilter organisationHREmailFilter;
+    private final OrganisationWriteTracker organisationWriteTracker;
+    private final OrganisationMapper organisationMapper;
+    private final OrganisationHRMapper organisationHRMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    
+    private final Timer importTimer;
+    private final Counter importedRows;
+    private final Counter failedRows;
+    
+    public OrganisationImportService(OrganisationHRRepository organisationHRRepository,
+                                     OrganisationHREmailFilter organisationHREmailFilter,
+                                     OrganisationWriteTracker organisationWriteTracker,
+                                     OrganisationMapper organisationMapper,
+                                     OrganisationHRMapper organisationHRMapper,
+                                     ApplicationEventPublisher eventPublisher,
+                                     Validator validator,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.organisationHRRepository = organisationHRRepository;
+        this.organisationHREmailFilter = organisationHREmailFilter;
+        this.organisationWriteTracker = organisationWriteTracker;
+        this.organisationMapper = organisationMapper;
+        this.organisationHRMapper = organisationHRMapper;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Accept the export's NDJSON lines as well as plain create requests
+        this.requestReader = objectMapper.readerFor(OrganisationRequestDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+        
+        this.importTimer = Timer.builder("organisation.import")
+                .description("Bulk organisation imports")
+                .register(meterRegistry);
+        this.importedRows = Counter.builder("organisation.import.rows")
+                .tag("result", "imported")
+                .description("Rows processed by bulk organisation imports")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("organisation.import.rows")
+                .tag("result", "failed")
+                .description("Rows processed by bulk organisation imports")
+                .register(meterRegistry);
+    }
+    
+    public OrganisationImportResultDto importOrganisations(Format format, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+        
+        List<OrganisationImportErrorDto> errors = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> createdIds = new ArrayList<>();
+        int total = 0;
+        int imported = 0;
+        
+        ParsedRow row;
+        while ((row = source.next()) != null) {
+            total++;
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error == null && !seenEmails.add(normalizeEmail(row.email()))) {
+                error = "Duplicate HR email in file";
+            }
+            if (error != null) {
+                errors.add(new OrganisationImportErrorDto(row.rowNumber(), row.email(), error));
+                continue;
+            }
+            
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                imported += importChunk(chunk, errors, createdIds);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, errors, createdIds);
+        }
+        
+        errors.sort(Comparator.comparingInt(OrganisationImportErrorDto::getRow));
+        long elapsedNanos = System.nanoTime() - started;
+        importTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        importedRows.increment(imported);
+        failedRows.increment(errors.size());
+        
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        // Only rows actually saved count; a file of rejected rows would otherwise look fast
+        double rowsPerSecond = seconds > 0 ? imported / seconds : 0;
+        log.info("Imported {} of {} organisations in {} ms ({} imported rows/s)",
+                imported, total, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(rowsPerSecond));
+        return new OrganisationImportResultDto(total, imported, errors.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond, errors, createdIds);
+    }
+    
+    private int importChunk(List<ParsedRow> chunk, List<OrganisationImportErrorDto> errors, List<Long> createdIds) {
+        // Only emails the Bloom filter can't rule out are looked up; usually none are
+        List<String> candidates = chunk.stream()
+                .map(ParsedRow::email)
+                .filter(organisationHREmailFilter::mightExist)
+                .collect(Collectors.toList());
+        Set<String> existing = candidates.isEmpty() ? Set.of() : organisationHRRepository.findExistingEmails(candidates)
+                .stream()
+                .map(OrganisationImportService::normalizeEmail)
+                .collect(Collectors.toSet());
+        
+        List<ParsedRow> insertable = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            if (existing.contains(normalizeEmail(row.email()))) {
+                errors.add(new OrganisationImportErrorDto(row.rowNumber(), row.email(),
+                        "Organisation with this HR email already exists"));
+            } else {
+                insertable.add(row);
+            }
+        }
+        if (insertable.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            createdIds.addAll(transactionTemplate.execute(status -> persistAll(insertable)));
+            return insertable.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} rows failed, retrying row by row: {}", insertable.size(), e.getMessage());
+        }
+        
+        int imported = 0;
+        for (ParsedRow row : insertable) {
+            try {
+                createdIds.addAll(transactionTemplate.execute(status -> persistAll(List.of(row))));
+                imported++;
+            } catch (RuntimeException e) {
+                errors.add(new OrganisationImportErrorDto(row.rowNumber(), row.email(),
+                        "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+        }
+        return imported;
+    }
+    
+    private List<Long> persistAll(List<ParsedRow> rows) {
+        organisationWriteTracker.begin();
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            OrganisationRequestDto request = rows.get(i).request();
+            Organisation organisation = organisationMapper.toEntity(request);
+            OrganisationHR organisationHR = organisationHRMapper.toEntity(request.getHrDetails(), organisation);
+            organisation.setOrganisationHR(organisationHR);
+            entityManager.persist(organisation);
+            ids.add(organisation.getId());
+            
+            // Published inside the transaction; listeners only see it once the chunk commits
+            OrganisationResponseDto created = organisationMapper.toResponseDto(organisation);
+            eventPublisher.publishEvent(OrganisationChangedEvent.created(created));
+            
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return ids;
+    }
+    
+    private String validate(OrganisationRequestDto request) {
+        Set<ConstraintViolation<OrganisationRequestDto>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private record ParsedRow(int rowNumber, OrganisationRequestDto request, String error) {
+        
+        String email() {
+            return request != null && request.getHrDetails() != null ? request.getHrDetails().getEmail() : null;
+        }
+    }
+    
+    private interface RowSource {
+        
+        /**
+         * Next data row, or {@code null} at end of input.
+         */
+        ParsedRow next() throws IOException;
+    }
+    
+    private final class NdjsonRowSource implements RowSource {
+        
+        private final BufferedReader reader;
+        private int lineNumber;
+        
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    OrganisationRequestDto request = requestReader.readValue(line);
+                    return new ParsedRow(lineNumber, request, null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * RFC 4180 CSV with a header row naming the columns in {@link #CSV_COLUMNS}, in any
+     * order; extra columns such as the export's {@code id} are ignored.
+     */
+    private static final class CsvRowSource implements RowSource {
+        
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private int rowNumber;
+        
+        private CsvRowSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                throw new IllegalArgumentException("CSV input is empty");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String column : CSV_COLUMNS) {
+                if (!columns.containsKey(column.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("CSV header is missing column: " + column);
+                }
+            }
+        }
+        
+        @Override
+        public ParsedRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord(reader);
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+            rowNumber++;
+            
+            if (record.size() < columns.size()) {
+                return new ParsedRow(rowNumber, null, "Expected " + columns.size() + " columns but found " + record.size());
+            }
+            OrganisationHRDto hrDetails = new OrganisationHRDto(null,
+                    field(record, "hrFirstName"), field(record, "hrLastName"),
+                    field(record, "hrEmail"), field(record, "hrContactNumber"));
+            OrganisationRequestDto request = new OrganisationRequestDto(
+                    field(record, "name"), field(record, "address"), hrDetails);
+            return new ParsedRow(rowNumber, request, null);
+        }
+        
+        private String field(List<String> record, String column) {
+            return record.get(columns.get(column.toLowerCase(Locale.ROOT))).trim();
+        }
+        
+        private static List<String> readRecord(BufferedReader reader) throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package com.academicerp.academicerp.service;
 
+import com.academicerp.academicerp.dto.CursorPageDto;
+import com.academicerp.academicerp.dto.OrganisationBulkResultDto;
+import com.academicerp.academicerp.dto.OrganisationBulkUpdateDto;
+import com.academicerp.academicerp.dto.OrganisationCollectionVersion;
+import com.academicerp.academicerp.dto.OrganisationFilterDto;
 import com.academicerp.academicerp.dto.OrganisationRequestDto;
 import com.academicerp.academicerp.dto.OrganisationResponseDto;
 import com.academicerp.academicerp.dto.OrganisationUpdateDto;
+import com.academicerp.academicerp.dto.OrganisationView;
 import com.academicerp.academicerp.entity.Organisation;
 import com.academicerp.academicerp.entity.OrganisationHR;
+import com.academicerp.academicerp.event.OrganisationChangedEvent;
 import com.academicerp.academicerp.exception.DuplicateOrganisationException;
 import com.academicerp.academicerp.exception.OrganisationNotFoundException;
+import com.academicerp.academicerp.exception.OrganisationVersionMismatchException;
 import com.academicerp.academicerp.mapper.OrganisationMapper;
 import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.repository.OrganisationCollectionRevisionRepository;
 import com.academicerp.academicerp.repository.OrganisationRepository;
 import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.repository.OrganisationTombstoneRepository;
+import com.academicerp.academicerp.search.OrganisationHREmailFilter;
+import com.academicerp.academicerp.search.OrganisationSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,13 +45,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrganisationService {
     
+    // Upper bound on the ids bound into one IN list
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
     private final OrganisationRepository organisationRepository;
     private final OrganisationHRRepository organisationHRRepository;
+    private final OrganisationTombstoneRepository organisationTombstoneRepository;
+    private final OrganisationCollectionRevisionRepository organisationCollectionRevisionRepository;
     private final OrganisationMapper organisationMapper;
     private final OrganisationHRMapper organisationHRMapper;
+    private final OrganisationSearchIndex organisationSearchIndex;
+    private final OrganisationHREmailFilter organisationHREmailFilter;
+    private final OrganisationWriteTracker organisationWriteTracker;
+    private final ApplicationEventPublisher eventPublisher;
     
     public OrganisationResponseDto createOrganisation(OrganisationRequestDto requestDto) {
-        if (organisationHRRepository.existsByEmail(requestDto.getHrDetails().getEmail())) {
+        organisationWriteTracker.begin();
+        if (hrEmailExists(requestDto.getHrDetails().getEmail())) {
             throw new DuplicateOrganisationException("Organisation with this HR email already exists");
         }
         
@@ -39,22 +69,24 @@ public class OrganisationService {
         Organisation savedOrganisation = organisationRepository.save(organisation);
         
         OrganisationHR organisationHR = organisationHRMapper.toEntity(requestDto.getHrDetails(), savedOrganisation);
-        OrganisationHR savedOrganisationHR = organisationHRRepository.save(organisationHR);
+        OrganisationHR savedOrganisationHR = saveHR(organisationHR);
         
         savedOrganisation.setOrganisationHR(savedOrganisationHR);
-        return organisationMapper.toResponseDto(savedOrganisation);
+        OrganisationResponseDto responseDto = organisationMapper.toResponseDto(savedOrganisation);
+        eventPublisher.publishEvent(OrganisationChangedEvent.created(responseDto));
+        return responseDto;
     }
     
     @Transactional(readOnly = true)
     public OrganisationResponseDto getOrganisationById(Long id) {
-        Organisation organisation = organisationRepository.findById(id)
+        OrganisationView organisation = organisationRepository.findViewById(id)
                 .orElseThrow(() -> new OrganisationNotFoundException("Organisation not found with id: " + id));
         return organisationMapper.toResponseDto(organisation);
     }
     
     @Transactional(readOnly = true)
     public List<OrganisationResponseDto> getAllOrganisations() {
-        List<Organisation> organisations = organisationRepository.findAll();
+        List<OrganisationView> organisations = organisationRepository.findAllViews();
         return organisations.stream()
                 .map(organisationMapper::toResponseDto)
                 .collect(Collectors.toList());
@@ -62,13 +94,105 @@ public class OrganisationService {
     
     @Transactional(readOnly = true)
     public Page<OrganisationResponseDto> getAllOrganisationsPaginated(Pageable pageable) {
-        Page<Organisation> organisations = organisationRepository.findAll(pageable);
+        Page<OrganisationView> organisations = organisationRepository.findAllViews(pageable);
         return organisations.map(organisationMapper::toResponseDto);
     }
     
+    /**
+     * Keyset pagination: seeks past the boundary row of the previous page on the
+     * (id) or (name, id) index instead of skipping rows, so every page costs the same
+     * however deep the client scrolls.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrganisationResponseDto> getOrganisationsByCursor(
+            String sortBy, String sortDir, String cursor, int size, boolean includeTotal) {
+        if (!"id".equals(sortBy) && !"name".equals(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination supports sortBy=id or sortBy=name");
+        }
+        boolean ascending = !"desc".equalsIgnoreCase(sortDir);
+        
+        OrganisationCursor position = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            position = OrganisationCursor.decode(cursor);
+            if (!position.sortBy().equals(sortBy) || position.ascending() != ascending) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+        }
+        
+        // One extra row tells us whether there is anything beyond this page
+        Pageable limit = PageRequest.of(0, size + 1);
+        boolean forward = position == null || position.forward();
+        List<Organisation> rows;
+        if (position == null) {
+            Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, sortBy, "id");
+            rows = organisationRepository.findAllBy(PageRequest.of(0, size + 1, sort));
+        } else if (forward == ascending) {
+            rows = "id".equals(sortBy)
+                    ? organisationRepository.findPageAfterId(position.id(), limit)
+                    : organisationRepository.findPageAfterName(position.name(), position.id(), limit);
+        } else {
+            rows = "id".equals(sortBy)
+                    ? organisationRepository.findPageBeforeId(position.id(), limit)
+                    : organisationRepository.findPageBeforeName(position.name(), position.id(), limit);
+        }
+        
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        if (!forward) {
+            // Walking backwards reads rows in reverse display order
+            rows = new ArrayList<>(rows);
+            Collections.reverse(rows);
+        }
+        
+        boolean hasNext = forward ? hasMore : true;
+        boolean hasPrevious = forward ? position != null : hasMore;
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!rows.isEmpty()) {
+            Organisation first = rows.get(0);
+            Organisation last = rows.get(rows.size() - 1);
+            if (hasNext) {
+                nextCursor = new OrganisationCursor(sortBy, ascending, true, last.getName(), last.getId()).encode();
+            }
+            if (hasPrevious) {
+                previousCursor = new OrganisationCursor(sortBy, ascending, false, first.getName(), first.getId()).encode();
+            }
+        } else if (position != null) {
+            // Everything past the request's cursor has been deleted. Hand back its position
+            // for the other direction, with the id nudged by one so the row the cursor was
+            // taken from is included again rather than skipped.
+            long towardsAfter = position.id() - 1;
+            long towardsBefore = position.id() + 1;
+            if (!forward) {
+                nextCursor = new OrganisationCursor(sortBy, ascending, true, position.name(),
+                        ascending ? towardsAfter : towardsBefore).encode();
+            } else {
+                previousCursor = new OrganisationCursor(sortBy, ascending, false, position.name(),
+                        ascending ? towardsBefore : towardsAfter).encode();
+            }
+        }
+        
+        List<OrganisationResponseDto> content = rows.stream()
+                .map(organisationMapper::toResponseDto)
+                .collect(Collectors.toList());
+        Long totalElements = includeTotal ? organisationRepository.count() : null;
+        return new CursorPageDto<>(content, content.size(), nextCursor, previousCursor, hasNext, hasPrevious, totalElements);
+    }
+    
+    /**
+     * Answers from the in-memory trigram index, ranked by relevance; falls back to the
+     * database scan for terms shorter than three characters or while the index is loading.
+     */
     @Transactional(readOnly = true)
     public List<OrganisationResponseDto> searchOrganisations(String searchTerm) {
-        List<Organisation> organisations = organisationRepository.searchOrganisations(searchTerm);
+        Optional<List<OrganisationResponseDto>> indexed = organisationSearchIndex.search(searchTerm);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        
+        List<OrganisationView> organisations = organisationRepository.searchOrganisationViews(searchTerm);
         return organisations.stream()
                 .map(organisationMapper::toResponseDto)
                 .collect(Collectors.toList());
@@ -76,15 +200,36 @@ public class OrganisationService {
     
     @Transactional(readOnly = true)
     public List<OrganisationResponseDto> findByNameContaining(String name) {
-        List<Organisation> organisations = organisationRepository.findByNameContainingIgnoreCase(name);
+        List<OrganisationView> organisations = organisationRepository.findViewsByNameContaining(name);
         return organisations.stream()
                 .map(organisationMapper::toResponseDto)
                 .collect(Collectors.toList());
     }
     
-    public OrganisationResponseDto updateOrganisation(Long id, OrganisationUpdateDto updateDto) {
+    /**
+     * Current version of one organisation, for ETag checks; empty if it doesn't exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getOrganisationVersion(Long id) {
+        return organisationRepository.findVersionById(id);
+    }
+    
+    @Transactional(readOnly = true)
+    public OrganisationCollectionVersion getOrganisationsVersion() {
+        return new OrganisationCollectionVersion(organisationCollectionRevisionRepository.findRevision().orElse(0L));
+    }
+    
+    /**
+     * @param expectedVersion version from the client's If-Match header, or null to update unconditionally
+     */
+    public OrganisationResponseDto updateOrganisation(Long id, OrganisationUpdateDto updateDto, Long expectedVersion) {
+        organisationWriteTracker.begin();
         Organisation organisation = organisationRepository.findById(id)
                 .orElseThrow(() -> new OrganisationNotFoundException("Organisation not found with id: " + id));
+        if (expectedVersion != null && organisation.getVersion() != expectedVersion) {
+            throw new OrganisationVersionMismatchException("Organisation " + id + " has been modified (current version "
+                    + organisation.getVersion() + ")");
+        }
         
         // Update organisation fields
         organisationMapper.updateEntityFromDto(updateDto, organisation);
@@ -97,23 +242,120 @@ public class OrganisationService {
             // Check if email is being updated and if it already exists
             if (updateDto.getHrDetails().getEmail() != null && 
                 !updateDto.getHrDetails().getEmail().equals(organisationHR.getEmail()) &&
-                organisationHRRepository.existsByEmail(updateDto.getHrDetails().getEmail())) {
+                hrEmailExists(updateDto.getHrDetails().getEmail())) {
                 throw new DuplicateOrganisationException("Organisation with this HR email already exists");
             }
             
             organisationHRMapper.updateEntityFromDto(updateDto.getHrDetails(), organisationHR);
-            organisationHRRepository.save(organisationHR);
+            saveHR(organisationHR);
         }
         
-        Organisation updatedOrganisation = organisationRepository.save(organisation);
-        return organisationMapper.toResponseDto(updatedOrganisation);
+        // Always dirty the organisation so HR-only changes bump its version too; flush to read the new version
+        organisation.setUpdatedAt(Instant.now());
+        Organisation updatedOrganisation = organisationRepository.saveAndFlush(organisation);
+        OrganisationResponseDto responseDto = organisationMapper.toResponseDto(updatedOrganisation);
+        eventPublisher.publishEvent(OrganisationChangedEvent.updated(responseDto));
+        return responseDto;
     }
     
-    public void deleteOrganisation(Long id) {
-        if (!organisationRepository.existsById(id)) {
+    /**
+     * @param expectedVersion version from the client's If-Match header, or null to delete unconditionally
+     */
+    public void deleteOrganisation(Long id, Long expectedVersion) {
+        organisationWriteTracker.begin();
+        // Plain statements instead of loading the entity and cascading; rolled back if nothing matched
+        List<Long> ids = List.of(id);
+        organisationTombstoneRepository.insertForOrganisations(ids, Instant.now());
+        organisationHRRepository.deleteByOrganisationIdIn(ids);
+        int deleted = expectedVersion != null
+                ? organisationRepository.deleteByIdAndVersion(id, expectedVersion)
+                : organisationRepository.deleteByIdIn(ids);
+        if (deleted == 0) {
+            if (expectedVersion != null && organisationRepository.existsById(id)) {
+                throw new OrganisationVersionMismatchException("Organisation " + id + " has been modified");
+            }
             throw new OrganisationNotFoundException("Organisation not found with id: " + id);
         }
-        organisationRepository.deleteById(id);
+        eventPublisher.publishEvent(OrganisationChangedEvent.deleted(id));
+    }
+    
+    /**
+     * Sets the address of every matching organisation with one UPDATE per 1000 ids.
+     */
+    public OrganisationBulkResultDto bulkUpdateOrganisations(OrganisationBulkUpdateDto updateDto) {
+        organisationWriteTracker.begin();
+        List<Long> ids = resolveIds(updateDto.getFilter());
+        int updated = 0;
+        for (List<Long> chunk : chunk(ids)) {
+            updated += organisationRepository.updateAddressByIdIn(chunk, updateDto.getAddress(), Instant.now());
+            // Bulk statements bypass the persistence context; re-read for the change listeners
+            for (Organisation organisation : organisationRepository.findAllWithHRByIdIn(chunk)) {
+                eventPublisher.publishEvent(OrganisationChangedEvent.updated(organisationMapper.toResponseDto(organisation)));
+            }
+        }
+        return new OrganisationBulkResultDto(updated, 0, ids);
+    }
+    
+    /**
+     * Deletes every matching organisation and its HR contact, leaving a tombstone for delta sync.
+     * JPQL deletes don't cascade, so the organisation_hr rows are removed explicitly first.
+     */
+    public OrganisationBulkResultDto bulkDeleteOrganisations(OrganisationFilterDto filter) {
+        organisationWriteTracker.begin();
+        List<Long> ids = resolveIds(filter);
+        int hrDeleted = 0;
+        int deleted = 0;
+        Instant now = Instant.now();
+        for (List<Long> chunk : chunk(ids)) {
+            organisationTombstoneRepository.insertForOrganisations(chunk, now);
+            hrDeleted += organisationHRRepository.deleteByOrganisationIdIn(chunk);
+            deleted += organisationRepository.deleteByIdIn(chunk);
+        }
+        ids.forEach(id -> eventPublisher.publishEvent(OrganisationChangedEvent.deleted(id)));
+        return new OrganisationBulkResultDto(deleted, hrDeleted, ids);
+    }
+    
+    // Flushed here so a duplicate email that got past hrEmailExists (written concurrently, or on
+    // another node) surfaces as the usual duplicate error rather than a failed commit
+    private OrganisationHR saveHR(OrganisationHR organisationHR) {
+        try {
+            return organisationHRRepository.saveAndFlush(organisationHR);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateOrganisationException("Organisation with this HR email already exists", e);
+        }
+    }
+    
+    // The Bloom filter rules out almost every new email; only possible matches are looked up
+    private boolean hrEmailExists(String email) {
+        return organisationHREmailFilter.mightExist(email) && organisationHRRepository.emailExists(email);
+    }
+    
+    private List<Long> resolveIds(OrganisationFilterDto filter) {
+        boolean hasIds = filter != null && filter.getIds() != null && !filter.getIds().isEmpty();
+        String namePattern = OrganisationRepository.containsPattern(filter != null ? filter.getNameContains() : null);
+        String addressPattern = OrganisationRepository.containsPattern(filter != null ? filter.getAddressContains() : null);
+        // Wildcards in the terms are escaped, so only a missing criterion yields MATCH_ALL
+        if (!hasIds && OrganisationRepository.MATCH_ALL.equals(namePattern)
+                && OrganisationRepository.MATCH_ALL.equals(addressPattern)) {
+            throw new IllegalArgumentException("At least one of ids, nameContains or addressContains is required");
+        }
+        
+        if (!hasIds) {
+            return organisationRepository.findIdsMatching(namePattern, addressPattern);
+        }
+        List<Long> ids = new ArrayList<>();
+        for (List<Long> chunk : chunk(filter.getIds().stream().distinct().collect(Collectors.toList()))) {
+            ids.addAll(organisationRepository.findIdsMatching(chunk, namePattern, addressPattern));
+        }
+        return ids;
+    }
+    
+    private static List<List<Long>> chunk(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
     }
     
     @Transactional(readOnly = true)
@@ -123,6 +365,6 @@ public class OrganisationService {
     
     @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
-        return organisationHRRepository.existsByEmail(email);
+        return hrEmailExists(email);
     }
 }
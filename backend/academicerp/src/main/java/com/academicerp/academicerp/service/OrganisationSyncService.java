@@ -0,0 +1,167 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.dto.OrganisationDeltaDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.dto.OrganisationView;
+import com.academicerp.academicerp.entity.OrganisationTombstone;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import com.academicerp.academicerp.repository.OrganisationTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for offline clients: everything changed or deleted after a watermark.
+ * <p>
+ * Both streams are keyset scans, (updated_at, id) on organisations and (deleted_at,
+ * organisation_id) on tombstones, so a sync reads only the rows that changed. Timestamps
+ * are taken before commit, so each scan stops short of the oldest write transaction still
+ * open on this node (see {@link OrganisationWriteTracker}), and at least
+ * {@code organisation.sync.commit-lag} short of now for writes made on other nodes; a
+ * transaction still in flight when a client syncs is picked up by a later sync.
+ */
+@Service
+@Slf4j
+public class OrganisationSyncService {
+    
+    public static final int MAX_LIMIT = 1000;
+    
+    private final OrganisationRepository organisationRepository;
+    private final OrganisationHRRepository organisationHRRepository;
+    private final OrganisationTombstoneRepository organisationTombstoneRepository;
+    private final OrganisationMapper organisationMapper;
+    private final OrganisationWriteTracker organisationWriteTracker;
+    private final Duration commitLag;
+    private final Duration tombstoneRetention;
+    
+    public OrganisationSyncService(
+            OrganisationRepository organisationRepository,
+            OrganisationHRRepository organisationHRRepository,
+            OrganisationTombstoneRepository organisationTombstoneRepository,
+            OrganisationMapper organisationMapper,
+            OrganisationWriteTracker organisationWriteTracker,
+            @Value("${organisation.sync.commit-lag:PT5S}") Duration commitLag,
+            @Value("${organisation.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.organisationRepository = organisationRepository;
+        this.organisationHRRepository = organisationHRRepository;
+        this.organisationTombstoneRepository = organisationTombstoneRepository;
+        this.organisationMapper = organisationMapper;
+        this.organisationWriteTracker = organisationWriteTracker;
+        this.commitLag = commitLag;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+    
+    /**
+     * Returns up to {@code limit} changed organisations and up to {@code limit} deleted ids
+     * after {@code since}. Without a watermark the whole directory is returned page by page,
+     * and deletes made before the first page are skipped.
+     */
+    @Transactional(readOnly = true)
+    public OrganisationDeltaDto getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Instant now = Instant.now();
+        Instant until = organisationWriteTracker.safeScanBound(now.minus(commitLag));
+        
+        OrganisationSyncWatermark from;
+        if (since == null || since.isBlank()) {
+            from = new OrganisationSyncWatermark(Instant.EPOCH, 0, until, Long.MAX_VALUE);
+        } else {
+            from = OrganisationSyncWatermark.decode(since.trim());
+            if (from.deletedAt().isBefore(now.minus(tombstoneRetention))) {
+                return new OrganisationDeltaDto(Collections.emptyList(), Collections.emptyList(), null, false, true);
+            }
+        }
+        
+        PageRequest rows = PageRequest.of(0, limit + 1);
+        List<OrganisationView> changed = organisationRepository.findViewsChangedAfter(
+                from.changedAt(), from.changedId(), until, rows);
+        List<OrganisationTombstone> deleted = organisationTombstoneRepository.findDeletedAfter(
+                from.deletedAt(), from.deletedId(), until, rows);
+        
+        boolean moreChanged = changed.size() > limit;
+        boolean moreDeleted = deleted.size() > limit;
+        if (moreChanged) {
+            changed = changed.subList(0, limit);
+        }
+        if (moreDeleted) {
+            deleted = deleted.subList(0, limit);
+        }
+        
+        // A stream read to the end moves up to the scan bound, so an idle client's watermark still advances
+        Instant changedAt = until;
+        long changedId = Long.MAX_VALUE;
+        if (moreChanged) {
+            OrganisationView last = changed.get(changed.size() - 1);
+            changedAt = last.updatedAt();
+            changedId = last.id();
+        }
+        Instant deletedAt = until;
+        long deletedId = Long.MAX_VALUE;
+        if (moreDeleted) {
+            OrganisationTombstone last = deleted.get(deleted.size() - 1);
+            deletedAt = last.getDeletedAt();
+            deletedId = last.getOrganisationId();
+        }
+        // A long-running write can hold the bound below where this client already is; never move it back
+        if (!moreChanged && from.changedAt().isAfter(changedAt)) {
+            changedAt = from.changedAt();
+            changedId = from.changedId();
+        }
+        if (!moreDeleted && from.deletedAt().isAfter(deletedAt)) {
+            deletedAt = from.deletedAt();
+            deletedId = from.deletedId();
+        }
+        
+        List<OrganisationResponseDto> changedDtos = changed.stream()
+                .map(organisationMapper::toResponseDto)
+                .collect(Collectors.toList());
+        List<Long> deletedIds = deleted.stream()
+                .map(OrganisationTombstone::getOrganisationId)
+                .collect(Collectors.toList());
+        String watermark = new OrganisationSyncWatermark(changedAt, changedId, deletedAt, deletedId).encode();
+        return new OrganisationDeltaDto(changedDtos, deletedIds, watermark, moreChanged || moreDeleted, false);
+    }
+    
+    /**
+     * Watermark from which {@link #getChanges} returns everything changed or deleted at or
+     * after {@code instant}.
+     */
+    public String watermarkAt(Instant instant) {
+        return new OrganisationSyncWatermark(instant, 0, instant, 0).encode();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillTimestamps() {
+        organisationWriteTracker.begin();
+        Instant now = Instant.now();
+        int organisations = organisationRepository.backfillTimestamps(now);
+        int hrContacts = organisationHRRepository.backfillTimestamps(now);
+        if (organisations > 0 || hrContacts > 0) {
+            log.info("Backfilled sync timestamps on {} organisations and {} HR contacts", organisations, hrContacts);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${organisation.sync.tombstone-purge-interval:PT1H}",
+               initialDelayString = "${organisation.sync.tombstone-purge-interval:PT1H}")
+    @Transactional
+    public void purgeTombstones() {
+        int removed = organisationTombstoneRepository.deleteOlderThan(Instant.now().minus(tombstoneRetention));
+        log.debug("Organisation tombstones purged, {} removed", removed);
+    }
+}
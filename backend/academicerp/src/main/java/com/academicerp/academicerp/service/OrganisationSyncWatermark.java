@@ -0,0 +1,54 @@
+package com.academicerp.academicerp.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of a delta-sync client: the last (updated_at, id) of the organisations it has
+ * seen and the last (deleted_at, organisation_id) of the tombstones. Clients only ever see
+ * the opaque Base64 form.
+ */
+record OrganisationSyncWatermark(Instant changedAt, long changedId, Instant deletedAt, long deletedId) {
+    
+    private static final int VERSION = 1;
+    
+    String encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeLong(changedAt.getEpochSecond());
+            out.writeInt(changedAt.getNano());
+            out.writeLong(changedId);
+            out.writeLong(deletedAt.getEpochSecond());
+            out.writeInt(deletedAt.getNano());
+            out.writeLong(deletedId);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    static OrganisationSyncWatermark decode(String watermark) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(watermark)));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported watermark");
+            }
+            Instant changedAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            long changedId = in.readLong();
+            Instant deletedAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            long deletedId = in.readLong();
+            return new OrganisationSyncWatermark(changedAt, changedId, deletedAt, deletedId);
+        } catch (IOException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed watermark", e);
+        }
+    }
+}
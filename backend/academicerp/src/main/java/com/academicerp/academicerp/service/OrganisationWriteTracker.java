@@ -0,0 +1,83 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.entity.OrganisationCollectionRevision;
+import com.academicerp.academicerp.repository.OrganisationCollectionRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every organisation write transaction calls {@link #begin()} first. That does two things:
+ * <ul>
+ *   <li>Records the start time while the transaction is open. Every updated_at and deleted_at
+ *   it stamps is taken later, so delta sync can scan up to just before the oldest open write
+ *   without passing rows that may still commit behind it, however long that transaction runs.
+ *   Writes on other nodes aren't seen here; {@code organisation.sync.commit-lag} still covers
+ *   those.</li>
+ *   <li>Raises the {@link OrganisationCollectionRevision} counter just before the transaction
+ *   commits, so the list ETag changes with every committed write. Doing it last keeps the
+ *   counter row locked only for the commit itself.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class OrganisationWriteTracker {
+    
+    private final OrganisationCollectionRevisionRepository organisationCollectionRevisionRepository;
+    private final Map<Object, Instant> openWrites = new ConcurrentHashMap<>();
+    
+    /**
+     * Registers the current transaction until it completes. Call before taking any timestamp;
+     * calling it again in the same transaction keeps the first start time.
+     */
+    public void begin() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        Object key = new Object();
+        TransactionSynchronizationManager.bindResource(this, key);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                incrementRevision();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                // Commit and rollback alike
+                TransactionSynchronizationManager.unbindResourceIfPossible(OrganisationWriteTracker.this);
+                openWrites.remove(key);
+            }
+        });
+        openWrites.put(key, Instant.now());
+    }
+    
+    private void incrementRevision() {
+        if (organisationCollectionRevisionRepository.increment() == 0) {
+            // First write ever; a concurrent first write fails on the key and can be retried
+            organisationCollectionRevisionRepository.saveAndFlush(
+                    new OrganisationCollectionRevision(OrganisationCollectionRevision.ID, 1L));
+        }
+    }
+    
+    /**
+     * Latest timestamp below every stamp an open write can still commit, or {@code bound} if
+     * that is earlier. Cut to whole milliseconds so database rounding can't push a stamp under it.
+     */
+    public Instant safeScanBound(Instant bound) {
+        Instant safe = bound;
+        for (Instant started : openWrites.values()) {
+            Instant before = started.truncatedTo(ChronoUnit.MILLIS).minusMillis(1);
+            if (before.isBefore(safe)) {
+                safe = before;
+            }
+        }
+        return safe;
+    }
+}
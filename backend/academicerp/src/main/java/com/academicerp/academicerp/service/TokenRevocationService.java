@@ -0,0 +1,153 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.entity.RevokedToken;
+import com.academicerp.academicerp.repository.RevokedTokenRepository;
+import com.academicerp.academicerp.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of revoked token ids ({@code jti}). The list is persisted, and an in-memory
+ * Bloom filter in front of it answers "not revoked" for almost every token without a
+ * database round trip; only Bloom-filter positives are confirmed against the store.
+ * <p>
+ * Revocations made on other nodes are picked up by a poll for rows revoked since the last
+ * one, every {@code jwt.revocation.poll-interval} (5 seconds by default). A token revoked
+ * elsewhere is therefore still accepted here for up to that interval plus the poll's query
+ * time. Each poll looks back a further minute to catch rows whose transaction committed
+ * after a later-stamped one; a revocation that commits more than a minute after it was
+ * stamped, or whose node's clock runs over a minute behind, is only picked up by the next
+ * full rebuild. That rebuild runs every {@code jwt.revocation.compaction-interval} and
+ * mainly drops expired entries.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+    
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+    
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Counter bloomNegatives;
+    private final Counter storeLookups;
+    
+    // Revocations made or polled on this node since shortly before the last rebuild (jti -> millis
+    // when seen), re-applied to every new filter so a rebuild racing with either can't drop them
+    private final Map<String, Long> recentRevocations = new ConcurrentHashMap<>();
+    private final Object filterLock = new Object();
+    
+    private volatile BloomFilter revokedIds;
+    private volatile Instant polledUpTo;
+    
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.revocation.bloom.expected-insertions:100000}") long expectedRevocations,
+            @Value("${jwt.revocation.bloom.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomNegatives = Counter.builder("jwt.revocation.checks")
+                .tag("path", "bloom")
+                .description("Revocation checks answered by the Bloom filter alone")
+                .register(meterRegistry);
+        this.storeLookups = Counter.builder("jwt.revocation.checks")
+                .tag("path", "store")
+                .description("Revocation checks that had to consult the denylist table")
+                .register(meterRegistry);
+        this.revokedIds = BloomFilter.create(expectedRevocations, falsePositiveRate);
+    }
+    
+    @PostConstruct
+    void loadRevokedTokens() {
+        polledUpTo = Instant.now();
+        rebuildFilter();
+    }
+    
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!revokedIds.mightContain(jti)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        storeLookups.increment();
+        return revokedTokenRepository.existsById(jti);
+    }
+    
+    @Transactional
+    public void revoke(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        RevokedToken revokedToken = new RevokedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getExpiration().toInstant(),
+                Instant.now()
+        );
+        revokedTokenRepository.save(revokedToken);
+        synchronized (filterLock) {
+            recentRevocations.put(claims.getId(), System.currentTimeMillis());
+            revokedIds.put(claims.getId());
+        }
+    }
+    
+    /**
+     * Adds revocations committed on any node since the previous poll to the live filter.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:PT5S}",
+               initialDelayString = "${jwt.revocation.poll-interval:PT5S}")
+    @Transactional(readOnly = true)
+    public void pollRevocations() {
+        Instant startedAt = Instant.now();
+        List<String> ids = revokedTokenRepository.findIdsRevokedAfter(polledUpTo.minus(POLL_OVERLAP));
+        if (!ids.isEmpty()) {
+            long seenAt = System.currentTimeMillis();
+            synchronized (filterLock) {
+                for (String id : ids) {
+                    recentRevocations.putIfAbsent(id, seenAt);
+                    revokedIds.put(id);
+                }
+            }
+        }
+        polledUpTo = startedAt;
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.revocation.compaction-interval:PT10M}",
+               initialDelayString = "${jwt.revocation.compaction-interval:PT10M}")
+    @Transactional
+    public void compact() {
+        int removed = revokedTokenRepository.deleteExpired(Instant.now());
+        rebuildFilter();
+        log.debug("Revocation list compacted, {} expired entries removed", removed);
+    }
+    
+    private void rebuildFilter() {
+        long startedAt = System.currentTimeMillis();
+        List<String> activeIds = revokedTokenRepository.findActiveTokenIds(Instant.now());
+        BloomFilter filter = BloomFilter.create(Math.max(expectedRevocations, activeIds.size() * 2L), falsePositiveRate);
+        activeIds.forEach(filter::put);
+        synchronized (filterLock) {
+            recentRevocations.keySet().forEach(filter::put);
+            revokedIds = filter;
+        }
+        // Revocations made well before the query were committed and are part of the snapshot just loaded
+        recentRevocations.values().removeIf(revokedAt -> revokedAt < startedAt - 60_000);
+    }
+}
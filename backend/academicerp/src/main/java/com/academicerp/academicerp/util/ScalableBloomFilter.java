@@ -0,0 +1,104 @@
+package com.academicerp.academicerp.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter that keeps its false positive rate as it grows past the expected size.
+ * Values go into the newest {@link BloomFilter} stage; when that stage holds its capacity
+ * a new one is added with twice the capacity and half the false positive rate, so the
+ * combined rate stays below the configured one. Like {@link BloomFilter} it never returns
+ * a false negative, and puts need no locking except for the rare call that adds a stage.
+ */
+public class ScalableBloomFilter {
+    
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+    
+    // Stage i gets firstStageRate * TIGHTENING_RATIO^i; the geometric series sums to falsePositiveRate
+    private final double firstStageRate;
+    private volatile Stage[] stages;
+    
+    private ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        this.firstStageRate = falsePositiveRate * (1 - TIGHTENING_RATIO);
+        this.stages = new Stage[] {new Stage(initialCapacity, firstStageRate)};
+    }
+    
+    public static ScalableBloomFilter create(long initialCapacity, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        return new ScalableBloomFilter(Math.max(1, initialCapacity), falsePositiveRate);
+    }
+    
+    public void put(String value) {
+        // Values already (possibly) present would only use up capacity
+        if (mightContain(value)) {
+            return;
+        }
+        Stage stage = stages[stages.length - 1];
+        if (stage.insertions.incrementAndGet() > stage.capacity) {
+            stage = grow(stage);
+            stage.insertions.incrementAndGet();
+        }
+        stage.filter.put(value);
+    }
+    
+    public boolean mightContain(String value) {
+        Stage[] current = stages;
+        // Newest first: recently added values are the ones most likely to be asked about
+        for (int i = current.length - 1; i >= 0; i--) {
+            if (current[i].filter.mightContain(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public int stageCount() {
+        return stages.length;
+    }
+    
+    public long approximateElementCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += Math.min(stage.insertions.get(), stage.capacity);
+        }
+        return count;
+    }
+    
+    public long bitSize() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.filter.bitSize();
+        }
+        return bits;
+    }
+    
+    private synchronized Stage grow(Stage full) {
+        Stage[] current = stages;
+        Stage newest = current[current.length - 1];
+        if (newest != full) {
+            // Another put got here first
+            return newest;
+        }
+        double rate = firstStageRate * Math.pow(TIGHTENING_RATIO, current.length);
+        Stage next = new Stage(full.capacity * GROWTH_FACTOR, rate);
+        Stage[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        stages = grown;
+        return next;
+    }
+    
+    private static final class Stage {
+        
+        private final BloomFilter filter;
+        private final long capacity;
+        private final AtomicLong insertions = new AtomicLong();
+        
+        private Stage(long capacity, double falsePositiveRate) {
+            this.filter = BloomFilter.create(capacity, falsePositiveRate);
+            this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.academicerp.academicerp.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditTrailTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void bulkOperationLargerThanTheBufferIsWrittenPerOrganisation() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AuditTrail auditTrail = new AuditTrail(directory, DataSize.ofKilobytes(64), 8, 4,
+                Duration.ofMillis(50), registry);
+        auditTrail.start();
+        try {
+            List<Long> ids = LongStream.rangeClosed(1, 500).boxed().toList();
+            auditTrail.recordEach(AuditAction.BULK_DELETE, null, ids, "deleted by bulk delete");
+            
+            awaitWritten(registry, ids.size());
+            assertThat(registry.counter("audit.events.dropped").count()).isZero();
+            assertThat(auditTrail.query(42L, null, AuditAction.BULK_DELETE, null, null, 0, 10))
+                    .singleElement()
+                    .satisfies(event -> assertThat(event.detail()).isEqualTo("deleted by bulk delete"));
+        } finally {
+            auditTrail.stop();
+        }
+    }
+    
+    @Test
+    void fullBufferDropsABulkOperationWithoutWaiting() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Writer never started, so nothing drains the buffer
+        AuditTrail auditTrail = new AuditTrail(directory, DataSize.ofKilobytes(64), 8, 4,
+                Duration.ofMillis(50), registry);
+        for (long id = 1; id <= 4; id++) {
+            auditTrail.record(AuditAction.UPDATE, null, id, null);
+        }
+        
+        long started = System.nanoTime();
+        auditTrail.recordEach(AuditAction.BULK_DELETE, null, List.of(5L, 6L, 7L), "deleted by bulk delete");
+        
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(registry.counter("audit.events.dropped").count()).isEqualTo(3);
+        auditTrail.stop();
+    }
+    
+    private static void awaitWritten(SimpleMeterRegistry registry, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (registry.get("audit.events.written").functionCounter().count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
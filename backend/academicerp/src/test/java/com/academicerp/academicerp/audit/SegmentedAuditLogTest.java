@@ -0,0 +1,88 @@
+package com.academicerp.academicerp.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentedAuditLogTest {
+    
+    private static final int SEGMENT_SIZE = 4096;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void rotatesSegmentsAndReplaysAcrossThem() throws IOException {
+        try (SegmentedAuditLog log = new SegmentedAuditLog(directory, SEGMENT_SIZE, 100)) {
+            for (int i = 0; i < 200; i++) {
+                log.append(event(i));
+            }
+            assertThat(log.segmentCount()).isGreaterThan(1);
+            
+            List<AuditEvent> all = replay(log, 1);
+            assertThat(all).hasSize(200);
+            assertThat(all).extracting(AuditEvent::sequence).isSorted().startsWith(1L).endsWith(200L);
+            assertThat(all.get(41).organisationId()).isEqualTo(41L);
+            assertThat(replay(log, 151)).extracting(AuditEvent::sequence).startsWith(151L).hasSize(50);
+        }
+    }
+    
+    @Test
+    void reopeningContinuesAfterTheLastRecord() throws IOException {
+        try (SegmentedAuditLog log = new SegmentedAuditLog(directory, SEGMENT_SIZE, 100)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(event(i));
+            }
+        }
+        try (SegmentedAuditLog log = new SegmentedAuditLog(directory, SEGMENT_SIZE, 100)) {
+            assertThat(log.nextSequence()).isEqualTo(11);
+            log.append(event(10));
+            assertThat(replay(log, 1)).extracting(AuditEvent::sequence).hasSize(11).endsWith(11L);
+        }
+    }
+    
+    @Test
+    void dropsOldestSegmentsPastTheLimit() throws IOException {
+        try (SegmentedAuditLog log = new SegmentedAuditLog(directory, SEGMENT_SIZE, 2)) {
+            for (int i = 0; i < 500; i++) {
+                log.append(event(i));
+            }
+            assertThat(log.segmentCount()).isEqualTo(2);
+            List<AuditEvent> kept = replay(log, 1);
+            assertThat(kept.get(kept.size() - 1).sequence()).isEqualTo(500);
+            assertThat(kept.get(0).sequence()).isGreaterThan(1);
+        }
+    }
+    
+    @Test
+    void ringBufferRejectsWhenFullAndDrainsInOrder() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 3)).isEqualTo(3);
+        assertThat(buffer.offer(5)).isTrue();
+        buffer.drain(drained::add, 10);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 5);
+    }
+    
+    private static AuditEvent event(int i) {
+        return new AuditEvent(0, Instant.now(), "user" + i + "@example.com", AuditAction.UPDATE, (long) i, "détail " + i);
+    }
+    
+    private static List<AuditEvent> replay(SegmentedAuditLog log, long fromSequence) throws IOException {
+        List<AuditEvent> events = new ArrayList<>();
+        log.replay(fromSequence, events::add);
+        return events;
+    }
+}
@@ -0,0 +1,82 @@
+package com.academicerp.academicerp.cache;
+
+import com.academicerp.academicerp.cache.OrganisationResponseCache.SerializedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrganisationResponseCacheTest {
+    
+    private OrganisationResponseCache cache;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new OrganisationResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 8, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+    
+    @Test
+    void servesTheStoredResponseUntilInvalidated() throws IOException {
+        SerializedResponse first = cache.get("all", "\"1\"", this::load);
+        
+        assertThat(new String(first.json())).isEqualTo("[\"Org 1\"]");
+        assertThat(gunzip(first.gzip())).isEqualTo(first.json());
+        assertThat(cache.get("all", "\"1\"", this::load)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        
+        cache.invalidateAll();
+        SerializedResponse reloaded = cache.get("all", "\"1\"", this::load);
+        assertThat(new String(reloaded.json())).isEqualTo("[\"Org 2\"]");
+    }
+    
+    @Test
+    void revisionChangedElsewhereIsReloadedWithoutALocalEvent() {
+        // Another node committed a write: no invalidation here, only a new shared revision
+        SerializedResponse before = cache.get("all", "\"1\"", this::load);
+        
+        SerializedResponse after = cache.get("all", "\"2\"", this::load);
+        assertThat(after.etag()).isEqualTo("\"2\"");
+        assertThat(new String(after.json())).isEqualTo("[\"Org 2\"]");
+        assertThat(cache.get("all", "\"2\"", this::load)).isSameAs(after).isNotSameAs(before);
+        assertThat(loads).hasValue(2);
+    }
+    
+    @Test
+    void loadOverlappingAnInvalidationIsReturnedButNotStored() {
+        // A change commits while the body is being read: the caller still gets its response,
+        // but it may hold the old data, so the next request has to load again
+        SerializedResponse stale = cache.get("all", "\"1\"", () -> {
+            Object body = load();
+            cache.invalidateAll();
+            return body;
+        });
+        
+        SerializedResponse fresh = cache.get("all", "\"1\"", this::load);
+        assertThat(fresh).isNotSameAs(stale);
+        assertThat(loads).hasValue(2);
+        
+        assertThat(cache.get("all", "\"1\"", this::load)).isSameAs(fresh);
+    }
+    
+    private Object load() {
+        return List.of("Org " + loads.incrementAndGet());
+    }
+    
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
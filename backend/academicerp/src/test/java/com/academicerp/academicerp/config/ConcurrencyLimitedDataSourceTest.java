@@ -0,0 +1,79 @@
+package com.academicerp.academicerp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * More threads than connections, each holding one for a while: together they need far longer
+ * than the pool's connection timeout, so without the limiter some checkouts time out.
+ */
+class ConcurrencyLimitedDataSourceTest {
+    
+    private static final int POOL_SIZE = 2;
+    private static final int THREADS = 100;
+    private static final long HOLD_MILLIS = 20;
+    
+    private HikariDataSource pool;
+    
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(POOL_SIZE);
+        pool.setMinimumIdle(POOL_SIZE);
+        // Hikari's minimum; the 100 checkouts need about a second of pool time
+        pool.setConnectionTimeout(250);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+    
+    @Test
+    void unlimitedThreadsTimeOutWaitingForThePool() throws InterruptedException {
+        assertThat(run(pool)).isPositive();
+    }
+    
+    @Test
+    void limiterQueuesThreadsSoNoneTimeOut() throws InterruptedException {
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, POOL_SIZE,
+                TimeUnit.SECONDS.toMillis(30));
+        
+        assertThat(run(limited)).isZero();
+        assertThat(limited.getAvailablePermits()).isEqualTo(POOL_SIZE);
+    }
+    
+    private static int run(DataSource dataSource) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger timedOut = new AtomicInteger();
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                    Thread.sleep(HOLD_MILLIS);
+                } catch (SQLException e) {
+                    timedOut.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        return timedOut.get();
+    }
+}
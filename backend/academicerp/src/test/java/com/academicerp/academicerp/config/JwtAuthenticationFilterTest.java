@@ -0,0 +1,86 @@
+package com.academicerp.academicerp.config;
+
+import com.academicerp.academicerp.service.EmployeeService;
+import com.academicerp.academicerp.service.JwtFixtures;
+import com.academicerp.academicerp.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+    
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+    private static final List<String> ROLES = List.of(EmployeeService.ROLE_EMPLOYEE, "OUTREACH");
+    
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtService = JwtFixtures.newJwtService();
+        filter = new JwtAuthenticationFilter(jwtService, new SimpleMeterRegistry());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void streamTicketOpensTheChangeStream() throws Exception {
+        MockHttpServletRequest request = request(JwtAuthenticationFilter.CHANGE_FEED_PATH);
+        request.setParameter("ticket", jwtService.generateStreamTicket("outreach@academicerp.com", ROLES));
+        
+        Authentication authentication = authenticate(request);
+        
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("outreach@academicerp.com");
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).contains("ROLE_OUTREACH");
+    }
+    
+    @Test
+    void accessTokenIsNotAcceptedFromTheUrl() throws Exception {
+        String accessToken = jwtService.generateToken("outreach@academicerp.com", null, ROLES);
+        MockHttpServletRequest asAccessToken = request(JwtAuthenticationFilter.CHANGE_FEED_PATH);
+        asAccessToken.setParameter("access_token", accessToken);
+        MockHttpServletRequest asTicket = request(JwtAuthenticationFilter.CHANGE_FEED_PATH);
+        asTicket.setParameter("ticket", accessToken);
+        
+        assertThat(authenticate(asAccessToken)).isNull();
+        assertThat(authenticate(asTicket)).isNull();
+    }
+    
+    @Test
+    void streamTicketIsRejectedEverywhereElse() throws Exception {
+        String ticket = jwtService.generateStreamTicket("outreach@academicerp.com", ROLES);
+        MockHttpServletRequest otherPath = request("/api/organisations");
+        otherPath.setParameter("ticket", ticket);
+        MockHttpServletRequest asBearer = request("/api/organisations");
+        asBearer.addHeader("Authorization", "Bearer " + ticket);
+        
+        assertThat(authenticate(otherPath)).isNull();
+        assertThat(authenticate(asBearer)).isNull();
+    }
+    
+    private Authentication authenticate(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+    
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
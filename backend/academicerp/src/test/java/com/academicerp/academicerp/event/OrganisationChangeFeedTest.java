@@ -0,0 +1,72 @@
+package com.academicerp.academicerp.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrganisationChangeFeedTest {
+    
+    private final List<OrganisationChangeFeed> feeds = new ArrayList<>();
+    
+    @AfterEach
+    void tearDown() {
+        feeds.forEach(OrganisationChangeFeed::shutdown);
+    }
+    
+    @Test
+    void replaysFromTheOldestKeptEventAndResetsBeforeIt() {
+        // Keeps events 3 to 6
+        OrganisationChangeFeed feed = feed(10, 4, 6);
+        
+        assertThat(missed(feed, feed.eventId(6))).isEmpty();
+        assertThat(missed(feed, feed.eventId(5))).containsExactly(6L);
+        assertThat(missed(feed, feed.eventId(2))).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(feed.missedEvents(feed.eventId(1))).isNull();
+    }
+    
+    @Test
+    void resetsWhenTheGapIsLargerThanTheClientQueue() {
+        OrganisationChangeFeed feed = feed(2, 10, 6);
+        
+        assertThat(missed(feed, feed.eventId(4))).containsExactly(5L, 6L);
+        assertThat(feed.missedEvents(feed.eventId(3))).isNull();
+    }
+    
+    @Test
+    void resetsOnIdsThisRunDidNotIssue() {
+        OrganisationChangeFeed feed = feed(10, 10, 3);
+        
+        assertThat(feed.missedEvents(feed.eventId(4))).isNull();
+        assertThat(feed.missedEvents("previousrun-2")).isNull();
+        assertThat(feed.missedEvents(feed.eventId(2).replace("-2", "-x"))).isNull();
+        assertThat(feed.missedEvents("2")).isNull();
+    }
+    
+    @Test
+    void nothingToReplayBeforeTheFirstEvent() {
+        OrganisationChangeFeed feed = feed(10, 10, 0);
+        
+        assertThat(missed(feed, feed.eventId(0))).isEmpty();
+        assertThat(feed.missedEvents(feed.eventId(1))).isNull();
+    }
+    
+    private OrganisationChangeFeed feed(int clientBufferSize, int historySize, int events) {
+        OrganisationChangeFeed feed = new OrganisationChangeFeed(new ObjectMapper(), clientBufferSize, historySize,
+                Duration.ofMinutes(1), 1);
+        feeds.add(feed);
+        for (long id = 1; id <= events; id++) {
+            feed.onOrganisationChanged(OrganisationChangedEvent.deleted(id));
+        }
+        return feed;
+    }
+    
+    private static List<Long> missed(OrganisationChangeFeed feed, String lastEventId) {
+        return feed.missedEvents(lastEventId).stream().map(OrganisationChangeFeed.FeedEvent::sequence).toList();
+    }
+}
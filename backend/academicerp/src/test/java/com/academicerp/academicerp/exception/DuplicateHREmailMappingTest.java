@@ -0,0 +1,55 @@
+package com.academicerp.academicerp.exception;
+
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * A duplicate HR email that gets past the pre-write checks is rejected by the unique
+ * constraint; clients must still get the duplicate response, not a 500.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class DuplicateHREmailMappingTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private OrganisationHRRepository organisationHRRepository;
+    
+    @Test
+    void uniqueEmailViolationMapsToConflict() {
+        organisationHRRepository.saveAndFlush(newHR("Org A", "hr@example.com"));
+        
+        DataIntegrityViolationException violation = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> organisationHRRepository.saveAndFlush(newHR("Org B", "hr@example.com")));
+        
+        assertThat(violation).isNotNull();
+        assertThat(new GlobalExceptionHandler().handleDataIntegrityViolationException(violation).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+    
+    private OrganisationHR newHR(String organisationName, String email) {
+        Organisation organisation = new Organisation();
+        organisation.setName(organisationName);
+        organisation.setAddress("Street 1");
+        organisationRepository.save(organisation);
+        
+        OrganisationHR organisationHR = new OrganisationHR();
+        organisationHR.setFirstName("First");
+        organisationHR.setLastName("Last");
+        organisationHR.setEmail(email);
+        organisationHR.setContactNumber("9876543210");
+        organisationHR.setOrganisation(organisation);
+        return organisationHR;
+    }
+}
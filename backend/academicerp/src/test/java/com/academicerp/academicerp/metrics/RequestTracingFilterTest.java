@@ -0,0 +1,69 @@
+package com.academicerp.academicerp.metrics;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class RequestTracingFilterTest {
+    
+    private static final FilterChain FAST_CHAIN = (request, response) -> { };
+    
+    @Test
+    void forceHeaderNeedsTheConfiguredToken(CapturedOutput output) throws Exception {
+        RequestTracingFilter filter = filter("s3cret");
+        
+        filter.doFilter(request("/api/wrong", "guess"), new MockHttpServletResponse(), FAST_CHAIN);
+        filter.doFilter(request("/api/right", "s3cret"), new MockHttpServletResponse(), FAST_CHAIN);
+        
+        // Console logging is asynchronous; lines from one thread arrive in order
+        awaitLine(output, "Traced GET /api/right");
+        assertThat(output.getOut()).doesNotContain("/api/wrong");
+    }
+    
+    @Test
+    void forceHeaderIsIgnoredWithoutAToken(CapturedOutput output) throws Exception {
+        filter("").doFilter(request("/api/untraced", ""), new MockHttpServletResponse(), FAST_CHAIN);
+        filter("s3cret").doFilter(request("/api/marker", "s3cret"), new MockHttpServletResponse(), FAST_CHAIN);
+        
+        awaitLine(output, "Traced GET /api/marker");
+        assertThat(output.getOut()).doesNotContain("/api/untraced");
+    }
+    
+    @Test
+    void queryStringIsNeverLogged(CapturedOutput output) throws Exception {
+        MockHttpServletRequest request = request("/api/stream", "s3cret");
+        request.setQueryString("access_token=abc.def.ghi");
+        
+        filter("s3cret").doFilter(request, new MockHttpServletResponse(), FAST_CHAIN);
+        
+        awaitLine(output, "Traced GET /api/stream");
+        assertThat(output.getOut()).doesNotContain("abc.def.ghi");
+    }
+    
+    private static void awaitLine(CapturedOutput output, String text) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!output.getOut().contains(text) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(output.getOut()).contains(text);
+    }
+    
+    private static RequestTracingFilter filter(String forceToken) {
+        return new RequestTracingFilter(Duration.ofSeconds(10), Duration.ofSeconds(10), 0.0, "X-Trace", forceToken);
+    }
+    
+    private static MockHttpServletRequest request(String path, String traceHeader) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("X-Trace", traceHeader);
+        return request;
+    }
+}
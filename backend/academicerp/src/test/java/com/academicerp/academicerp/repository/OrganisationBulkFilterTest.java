@@ -0,0 +1,70 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.entity.Organisation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk update and delete resolve their targets with these patterns, so a term must only
+ * ever match values that contain it literally.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrganisationBulkFilterTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Long percent;
+    private Long underscore;
+    private Long backslash;
+    private Long plain;
+    
+    @BeforeEach
+    void setUp() {
+        percent = persist("100% Organic", "Street 1");
+        underscore = persist("Snake_Case Ltd", "Street 2");
+        backslash = persist("Back\\Slash Inc", "Street 3");
+        plain = persist("Plain Org", "Street 4");
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void wildcardsInTermsMatchLiterally() {
+        assertThat(findByName("%")).containsExactly(percent);
+        assertThat(findByName("_")).containsExactly(underscore);
+        assertThat(findByName("\\")).containsExactly(backslash);
+        assertThat(findByName("e_c")).containsExactly(underscore);
+        assertThat(findByName("ORG")).containsExactlyInAnyOrder(percent, plain);
+    }
+    
+    @Test
+    void onlyBlankTermsMatchEverything() {
+        assertThat(OrganisationRepository.containsPattern(null)).isEqualTo(OrganisationRepository.MATCH_ALL);
+        assertThat(OrganisationRepository.containsPattern("  ")).isEqualTo(OrganisationRepository.MATCH_ALL);
+        assertThat(OrganisationRepository.containsPattern("%")).isNotEqualTo(OrganisationRepository.MATCH_ALL);
+        assertThat(OrganisationRepository.containsPattern("%%")).isNotEqualTo(OrganisationRepository.MATCH_ALL);
+    }
+    
+    private List<Long> findByName(String term) {
+        return organisationRepository.findIdsMatching(
+                OrganisationRepository.containsPattern(term), OrganisationRepository.MATCH_ALL);
+    }
+    
+    private Long persist(String name, String address) {
+        Organisation organisation = new Organisation();
+        organisation.setName(name);
+        organisation.setAddress(address);
+        return entityManager.persistAndGetId(organisation, Long.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+/**
+ * Test data shared by the repository tests.
+ */
+final class OrganisationFixtures {
+    
+    private OrganisationFixtures() {
+    }
+    
+    /**
+     * Persists organisations "Org 0" to "Org {rows - 1}", each with an HR contact, then flushes
+     * and clears the persistence context so later reads go to the database.
+     *
+     * @return the id of the last organisation persisted
+     */
+    static Long persistOrganisations(TestEntityManager entityManager, int rows) {
+        Long lastId = null;
+        for (int i = 0; i < rows; i++) {
+            Organisation organisation = new Organisation();
+            organisation.setName("Org " + i);
+            organisation.setAddress("Street " + i);
+            
+            OrganisationHR organisationHR = new OrganisationHR();
+            organisationHR.setFirstName("First" + i);
+            organisationHR.setLastName("Last" + i);
+            organisationHR.setEmail("hr" + i + "@org" + i + ".com");
+            organisationHR.setContactNumber("9876543210");
+            organisationHR.setOrganisation(organisation);
+            organisation.setOrganisationHR(organisationHR);
+            
+            lastId = entityManager.persistAndGetId(organisation, Long.class);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return lastId;
+    }
+}
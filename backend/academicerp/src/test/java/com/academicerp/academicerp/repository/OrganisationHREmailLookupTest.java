@@ -0,0 +1,116 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Email lookups through the natural-id cache. The cache is only filled and invalidated on
+ * commit, so each step runs in its own committed transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrganisationHREmailLookupTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private OrganisationHRRepository organisationHRRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Long organisationId;
+    
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        organisationId = transactionTemplate.execute(status -> {
+            Organisation organisation = new Organisation();
+            organisation.setName("Lookup Org");
+            organisation.setAddress("Street 1");
+            OrganisationHR organisationHR = new OrganisationHR();
+            organisationHR.setFirstName("First");
+            organisationHR.setLastName("Last");
+            organisationHR.setEmail("hr@lookup.com");
+            organisationHR.setContactNumber("9876543210");
+            organisationHR.setOrganisation(organisation);
+            organisation.setOrganisationHR(organisationHR);
+            return organisationRepository.save(organisation).getId();
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            organisationHRRepository.deleteByOrganisationIdIn(List.of(organisationId));
+            organisationRepository.deleteByIdIn(List.of(organisationId));
+        });
+    }
+    
+    @Test
+    void knownEmailIsAnsweredFromTheCacheWithoutLoadingTheContact() {
+        assertThat(emailExists("hr@lookup.com")).isTrue();
+        
+        statistics.clear();
+        assertThat(emailExists("hr@lookup.com")).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+    
+    @Test
+    void unknownEmailIsLookedUpEveryTime() {
+        statistics.clear();
+        assertThat(emailExists("nobody@lookup.com")).isFalse();
+        assertThat(emailExists("nobody@lookup.com")).isFalse();
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+    
+    @Test
+    void changedAndDeletedEmailsAreNotServedFromTheCache() {
+        assertThat(emailExists("hr@lookup.com")).isTrue();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            OrganisationHR organisationHR = organisationHRRepository.findByOrganisationId(organisationId).orElseThrow();
+            organisationHR.setEmail("moved@lookup.com");
+        });
+        assertThat(emailExists("hr@lookup.com")).isFalse();
+        assertThat(emailExists("moved@lookup.com")).isTrue();
+        
+        transactionTemplate.executeWithoutResult(status ->
+                organisationHRRepository.deleteByOrganisationIdIn(List.of(organisationId)));
+        assertThat(emailExists("moved@lookup.com")).isFalse();
+    }
+    
+    private boolean emailExists(String email) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> organisationHRRepository.emailExists(email)));
+    }
+}
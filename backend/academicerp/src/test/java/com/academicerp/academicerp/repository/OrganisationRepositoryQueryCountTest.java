@@ -0,0 +1,102 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Organisation reads must load HR details in the same statement, so the number of
+ * statements stays fixed however many organisations are returned.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrganisationRepositoryQueryCountTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private final OrganisationMapper organisationMapper = new OrganisationMapper(new OrganisationHRMapper());
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {10, 60})
+    void findAllUsesOneStatement(int rows) {
+        persistOrganisations(rows);
+        
+        organisationRepository.findAll().forEach(organisationMapper::toResponseDto);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {10, 60})
+    void paginatedFindAllUsesSelectAndCountOnly(int rows) {
+        persistOrganisations(rows);
+        
+        organisationRepository.findAll(PageRequest.of(1, 5)).forEach(organisationMapper::toResponseDto);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {10, 60})
+    void searchUsesOneStatement(int rows) {
+        persistOrganisations(rows);
+        
+        assertThat(organisationRepository.searchOrganisations("org"))
+                .hasSize(rows)
+                .allSatisfy(organisationMapper::toResponseDto);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {10, 60})
+    void findByNameContainingUsesOneStatement(int rows) {
+        persistOrganisations(rows);
+        
+        organisationRepository.findByNameContainingIgnoreCase("ORG").forEach(organisationMapper::toResponseDto);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {10, 60})
+    void findByIdUsesOneStatement(int rows) {
+        Long id = persistOrganisations(rows);
+        
+        organisationRepository.findById(id).map(organisationMapper::toResponseDto);
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+    
+    private Long persistOrganisations(int rows) {
+        Long lastId = OrganisationFixtures.persistOrganisations(entityManager, rows);
+        statistics.clear();
+        return lastId;
+    }
+}
@@ -0,0 +1,115 @@
+package com.academicerp.academicerp.repository;
+
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The OrganisationView projections must return exactly what the entity path returned.
+ * {@link #compareEntityAndProjectionReads()} is a benchmark, run it with
+ * {@code mvn test -Dtest=OrganisationViewProjectionTest -Dbenchmark=true}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Slf4j
+class OrganisationViewProjectionTest {
+    
+    private static final Comparator<OrganisationResponseDto> BY_ID = Comparator.comparing(OrganisationResponseDto::getId);
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private final OrganisationMapper organisationMapper = new OrganisationMapper(new OrganisationHRMapper());
+    
+    @Test
+    void projectionsMatchEntityReads() {
+        Long id = OrganisationFixtures.persistOrganisations(entityManager, 25);
+        
+        assertThat(viewsFindAll()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(entitiesFindAll());
+        
+        PageRequest page = PageRequest.of(1, 5, Sort.by("name").descending());
+        assertThat(organisationRepository.findAllViews(page).map(organisationMapper::toResponseDto).getContent())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(organisationRepository.findAll(page).map(organisationMapper::toResponseDto).getContent());
+        
+        assertThat(organisationMapper.toResponseDto(organisationRepository.findViewById(id).orElseThrow()))
+                .usingRecursiveComparison()
+                .isEqualTo(organisationMapper.toResponseDto(organisationRepository.findById(id).orElseThrow()));
+        
+        assertThat(organisationRepository.searchOrganisationViews("last1").stream()
+                .map(organisationMapper::toResponseDto).sorted(BY_ID).collect(Collectors.toList()))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(organisationRepository.searchOrganisations("last1").stream()
+                        .map(organisationMapper::toResponseDto).sorted(BY_ID).collect(Collectors.toList()));
+    }
+    
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareEntityAndProjectionReads() {
+        OrganisationFixtures.persistOrganisations(entityManager, 2000);
+        
+        Result entities = measure(this::entitiesFindAll);
+        Result views = measure(this::viewsFindAll);
+        
+        log.info("findAll, 2000 organisations: entities {} ms/op {} bytes/op, projections {} ms/op {} bytes/op",
+                String.format("%.2f", entities.millisPerOp()), entities.bytesPerOp(),
+                String.format("%.2f", views.millisPerOp()), views.bytesPerOp());
+        assertThat(views.bytesPerOp()).isLessThan(entities.bytesPerOp());
+    }
+    
+    private List<OrganisationResponseDto> entitiesFindAll() {
+        List<OrganisationResponseDto> result = organisationRepository.findAll().stream()
+                .map(organisationMapper::toResponseDto)
+                .collect(Collectors.toList());
+        // The service runs each read in its own transaction; don't let the next read hit the first-level cache
+        entityManager.clear();
+        return result;
+    }
+    
+    private List<OrganisationResponseDto> viewsFindAll() {
+        return organisationRepository.findAllViews().stream()
+                .map(organisationMapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+    
+    private static Result measure(Supplier<List<OrganisationResponseDto>> read) {
+        int warmup = 20;
+        int iterations = 50;
+        for (int i = 0; i < warmup; i++) {
+            read.get();
+        }
+        
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            read.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new Result(elapsed / 1_000_000.0 / iterations, bytes / iterations);
+    }
+    
+    private record Result(double millisPerOp, long bytesPerOp) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.academicerp.academicerp.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactTrieTest {
+    
+    @Test
+    void collectsShortestKeysFirstThenAlphabetically() {
+        CompactTrie trie = new CompactTrie();
+        trie.insert("abcdef", 1);
+        trie.insert("ac", 2);
+        trie.insert("ab", 3);
+        trie.insert("abd", 4);
+        trie.insert("b", 5);
+        trie.insert("a", 6);
+        
+        assertThat(trie.collect("a", 10)).containsExactly(6L, 3L, 2L, 4L, 1L);
+        assertThat(trie.collect("a", 3)).containsExactly(6L, 3L, 2L);
+        assertThat(trie.collect("ab", 10)).containsExactly(3L, 4L, 1L);
+        assertThat(trie.collect("abc", 10)).containsExactly(1L);
+        assertThat(trie.collect("", 10)).containsExactly(6L, 5L, 3L, 2L, 4L, 1L);
+    }
+    
+    @Test
+    void removeKeepsOtherKeysReachable() {
+        CompactTrie trie = new CompactTrie();
+        trie.insert("abc", 1);
+        trie.insert("abd", 2);
+        trie.insert("ab", 3);
+        
+        assertThat(trie.remove("ab", 3)).isTrue();
+        assertThat(trie.remove("ab", 3)).isFalse();
+        assertThat(trie.remove("abd", 2)).isTrue();
+        
+        assertThat(trie.size()).isEqualTo(1);
+        assertThat(trie.collect("a", 10)).containsExactly(1L);
+        assertThat(trie.collect("abd", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,128 @@
+package com.academicerp.academicerp.search;
+
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.dto.OrganisationSuggestionDto;
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.academicerp.academicerp.repository.OrganisationCollectionRevisionRepository;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import com.academicerp.academicerp.repository.OrganisationTombstoneRepository;
+import com.academicerp.academicerp.service.OrganisationSyncService;
+import com.academicerp.academicerp.service.OrganisationWriteTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes made straight through the repositories, with no {@code OrganisationChangedEvent},
+ * stand in for writes committed on another node.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrganisationSearchCatchUpTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private OrganisationHRRepository organisationHRRepository;
+    
+    @Autowired
+    private OrganisationTombstoneRepository organisationTombstoneRepository;
+    
+    @Autowired
+    private OrganisationCollectionRevisionRepository organisationCollectionRevisionRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private OrganisationMapper organisationMapper;
+    private OrganisationSyncService syncService;
+    
+    @BeforeEach
+    void setUp() {
+        organisationMapper = new OrganisationMapper(new OrganisationHRMapper());
+        syncService = new OrganisationSyncService(organisationRepository, organisationHRRepository,
+                organisationTombstoneRepository, organisationMapper,
+                new OrganisationWriteTracker(organisationCollectionRevisionRepository),
+                Duration.ZERO, Duration.ofDays(30));
+    }
+    
+    @Test
+    void searchIndexPicksUpWritesMadeElsewhere() {
+        Long alpha = persist("Alpha College");
+        OrganisationSearchIndex index = new OrganisationSearchIndex(organisationRepository, organisationMapper, syncService, true);
+        index.rebuild();
+        
+        persist("Bravo Institute");
+        delete(alpha);
+        assertThat(names(index.search("bravo").orElseThrow())).isEmpty();
+        
+        index.catchUp();
+        assertThat(names(index.search("bravo").orElseThrow())).containsExactly("Bravo Institute");
+        assertThat(index.search("alpha").orElseThrow()).isEmpty();
+    }
+    
+    @Test
+    void disabledSearchIndexLeavesSearchesToTheDatabase() {
+        persist("Alpha College");
+        OrganisationSearchIndex index = new OrganisationSearchIndex(organisationRepository, organisationMapper, syncService, false);
+        index.rebuild();
+        index.catchUp();
+        
+        assertThat(index.search("alpha")).isEmpty();
+    }
+    
+    @Test
+    void nameSuggesterPicksUpWritesMadeElsewhere() {
+        Long alpha = persist("Alpha College");
+        OrganisationNameSuggester suggester = new OrganisationNameSuggester(organisationRepository, syncService);
+        suggester.rebuild();
+        
+        persist("Alpine Institute");
+        delete(alpha);
+        suggester.catchUp();
+        
+        assertThat(suggester.suggest("alp", 10))
+                .extracting(OrganisationSuggestionDto::getName)
+                .containsExactly("Alpine Institute");
+    }
+    
+    private static List<String> names(List<OrganisationResponseDto> organisations) {
+        return organisations.stream().map(OrganisationResponseDto::getName).toList();
+    }
+    
+    private void delete(Long id) {
+        organisationTombstoneRepository.insertForOrganisations(List.of(id), Instant.now());
+        organisationHRRepository.deleteByOrganisationIdIn(List.of(id));
+        organisationRepository.deleteByIdIn(List.of(id));
+    }
+    
+    private Long persist(String name) {
+        Organisation organisation = new Organisation();
+        organisation.setName(name);
+        organisation.setAddress("Street");
+        
+        OrganisationHR organisationHR = new OrganisationHR();
+        organisationHR.setFirstName("First");
+        organisationHR.setLastName("Last");
+        organisationHR.setEmail(name.replace(' ', '.').toLowerCase() + "@example.com");
+        organisationHR.setContactNumber("9876543210");
+        organisationHR.setOrganisation(organisation);
+        organisation.setOrganisationHR(organisationHR);
+        Long id = entityManager.persistAndGetId(organisation, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+}
@@ -0,0 +1,48 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.cache.VerifiedTokenCache;
+import com.academicerp.academicerp.repository.RevokedTokenRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A JwtService wired the way Spring wires it, minus the database: HS256 with the
+ * application's default secret, and a revocation service whose repository is a mock. The
+ * revocation Bloom filter starts empty, so revocation checks never reach the repository.
+ */
+public final class JwtFixtures {
+    
+    public static final String SECRET = "mySecretKeyForJWTTokenGenerationAndValidationInAcademicERPApplication";
+    public static final long ACCESS_EXPIRATION_MILLIS = 900_000;
+    public static final long REFRESH_EXPIRATION_MILLIS = 86_400_000;
+    public static final long STREAM_TICKET_EXPIRATION_MILLIS = 30_000;
+    
+    private JwtFixtures() {
+    }
+    
+    public static JwtService newJwtService() throws Exception {
+        return newJwtService(newVerifiedTokenCache());
+    }
+    
+    public static VerifiedTokenCache newVerifiedTokenCache() {
+        return new VerifiedTokenCache(10_000, new SimpleMeterRegistry());
+    }
+    
+    public static JwtService newJwtService(VerifiedTokenCache verifiedTokenCache) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtKeyManager keyManager = new JwtKeyManager(SignatureAlgorithm.HS256, SECRET, null, null, 2048, REFRESH_EXPIRATION_MILLIS);
+        keyManager.initKeys();
+        TokenRevocationService revocationService = new TokenRevocationService(
+                mock(RevokedTokenRepository.class), meterRegistry, 100_000, 0.001);
+        
+        JwtService jwtService = new JwtService(verifiedTokenCache, revocationService, keyManager);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", ACCESS_EXPIRATION_MILLIS);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", REFRESH_EXPIRATION_MILLIS);
+        ReflectionTestUtils.setField(jwtService, "streamTicketExpiration", STREAM_TICKET_EXPIRATION_MILLIS);
+        jwtService.initParser();
+        return jwtService;
+    }
+}
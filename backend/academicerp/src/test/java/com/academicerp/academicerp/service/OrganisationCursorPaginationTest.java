@@ -0,0 +1,155 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.dto.CursorPageDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.academicerp.academicerp.repository.OrganisationCollectionRevisionRepository;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import com.academicerp.academicerp.repository.OrganisationTombstoneRepository;
+import com.academicerp.academicerp.search.OrganisationHREmailFilter;
+import com.academicerp.academicerp.search.OrganisationSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrganisationCursorPaginationTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private OrganisationHRRepository organisationHRRepository;
+    
+    @Autowired
+    private OrganisationTombstoneRepository organisationTombstoneRepository;
+    
+    @Autowired
+    private OrganisationCollectionRevisionRepository organisationCollectionRevisionRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private OrganisationService organisationService;
+    private List<Long> ids;
+    
+    @BeforeEach
+    void setUp() {
+        OrganisationHRMapper organisationHRMapper = new OrganisationHRMapper();
+        OrganisationMapper organisationMapper = new OrganisationMapper(organisationHRMapper);
+        organisationService = new OrganisationService(organisationRepository, organisationHRRepository,
+                organisationTombstoneRepository, organisationCollectionRevisionRepository,
+                organisationMapper, organisationHRMapper,
+                new OrganisationSearchIndex(organisationRepository, organisationMapper, null, false),
+                new OrganisationHREmailFilter(organisationHRRepository, new SimpleMeterRegistry(), false, 100, 0.01),
+                new OrganisationWriteTracker(organisationCollectionRevisionRepository),
+                event -> { });
+        
+        // Names repeat, so paging by name has to fall back on the id
+        ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(persist(i, "Org " + (i / 2)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void pagesForwardAndBackByIdWithoutGapsOrRepeats() {
+        assertThat(walk("id", "asc")).containsExactlyElementsOf(ids);
+        assertThat(walk("id", "desc")).containsExactlyElementsOf(reversed(ids));
+    }
+    
+    @Test
+    void pagesForwardAndBackByNameWithoutGapsOrRepeats() {
+        assertThat(walk("name", "asc")).containsExactlyElementsOf(ids);
+        assertThat(walk("name", "desc")).containsExactlyElementsOf(reversed(ids));
+    }
+    
+    @Test
+    void emptyBackwardPageLeadsBackToTheRowItCameFrom() {
+        CursorPageDto<OrganisationResponseDto> first = organisationService.getOrganisationsByCursor("name", "asc", null, 2, false);
+        CursorPageDto<OrganisationResponseDto> second = organisationService.getOrganisationsByCursor("name", "asc", first.getNextCursor(), 2, false);
+        organisationRepository.deleteAllById(ids.subList(0, 2));
+        entityManager.flush();
+        
+        CursorPageDto<OrganisationResponseDto> back = organisationService.getOrganisationsByCursor("name", "asc", second.getPreviousCursor(), 2, false);
+        assertThat(back.getContent()).isEmpty();
+        assertThat(back.isHasNext()).isTrue();
+        assertThat(back.getNextCursor()).isNotNull();
+        
+        CursorPageDto<OrganisationResponseDto> again = organisationService.getOrganisationsByCursor("name", "asc", back.getNextCursor(), 2, false);
+        assertThat(idsOf(again)).containsExactlyElementsOf(ids.subList(2, 4));
+    }
+    
+    @Test
+    void rejectsACursorIssuedForAnotherSortOrder() {
+        String cursor = organisationService.getOrganisationsByCursor("id", "asc", null, 2, false).getNextCursor();
+        
+        assertThatThrownBy(() -> organisationService.getOrganisationsByCursor("name", "asc", cursor, 2, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> organisationService.getOrganisationsByCursor("id", "desc", cursor, 2, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    /**
+     * Pages to the end with the next cursors, then back to the start with the previous
+     * cursors, checking both walks see the same rows; returns them in display order.
+     */
+    private List<Long> walk(String sortBy, String sortDir) {
+        List<Long> forward = new ArrayList<>();
+        CursorPageDto<OrganisationResponseDto> page = organisationService.getOrganisationsByCursor(sortBy, sortDir, null, 2, false);
+        forward.addAll(idsOf(page));
+        while (page.isHasNext()) {
+            page = organisationService.getOrganisationsByCursor(sortBy, sortDir, page.getNextCursor(), 2, false);
+            forward.addAll(idsOf(page));
+        }
+        
+        List<Long> backward = new ArrayList<>(idsOf(page));
+        while (page.isHasPrevious()) {
+            page = organisationService.getOrganisationsByCursor(sortBy, sortDir, page.getPreviousCursor(), 2, false);
+            backward.addAll(0, idsOf(page));
+        }
+        assertThat(backward).isEqualTo(forward);
+        return forward;
+    }
+    
+    private static List<Long> reversed(List<Long> ids) {
+        List<Long> reversed = new ArrayList<>(ids);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+    
+    private static List<Long> idsOf(CursorPageDto<OrganisationResponseDto> page) {
+        return page.getContent().stream().map(OrganisationResponseDto::getId).toList();
+    }
+    
+    private Long persist(int i, String name) {
+        Organisation organisation = new Organisation();
+        organisation.setName(name);
+        organisation.setAddress("Street " + i);
+        
+        OrganisationHR organisationHR = new OrganisationHR();
+        organisationHR.setFirstName("First" + i);
+        organisationHR.setLastName("Last" + i);
+        organisationHR.setEmail("hr" + i + "@org" + i + ".com");
+        organisationHR.setContactNumber("9876543210");
+        organisationHR.setOrganisation(organisation);
+        organisation.setOrganisationHR(organisationHR);
+        return entityManager.persistAndGetId(organisation, Long.class);
+    }
+}
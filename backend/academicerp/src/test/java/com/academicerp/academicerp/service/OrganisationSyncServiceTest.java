@@ -0,0 +1,149 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.dto.OrganisationDeltaDto;
+import com.academicerp.academicerp.dto.OrganisationResponseDto;
+import com.academicerp.academicerp.entity.Organisation;
+import com.academicerp.academicerp.entity.OrganisationHR;
+import com.academicerp.academicerp.mapper.OrganisationHRMapper;
+import com.academicerp.academicerp.mapper.OrganisationMapper;
+import com.academicerp.academicerp.repository.OrganisationCollectionRevisionRepository;
+import com.academicerp.academicerp.repository.OrganisationHRRepository;
+import com.academicerp.academicerp.repository.OrganisationRepository;
+import com.academicerp.academicerp.repository.OrganisationTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrganisationSyncServiceTest {
+    
+    @Autowired
+    private OrganisationRepository organisationRepository;
+    
+    @Autowired
+    private OrganisationHRRepository organisationHRRepository;
+    
+    @Autowired
+    private OrganisationTombstoneRepository organisationTombstoneRepository;
+    
+    @Autowired
+    private OrganisationCollectionRevisionRepository organisationCollectionRevisionRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private OrganisationWriteTracker organisationWriteTracker;
+    private OrganisationSyncService syncService;
+    private List<Long> ids;
+    private Instant stamped;
+    
+    @BeforeEach
+    void setUp() {
+        organisationWriteTracker = new OrganisationWriteTracker(organisationCollectionRevisionRepository);
+        syncService = new OrganisationSyncService(organisationRepository, organisationHRRepository,
+                organisationTombstoneRepository, new OrganisationMapper(new OrganisationHRMapper()),
+                organisationWriteTracker, Duration.ZERO, Duration.ofDays(30));
+        
+        ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(persist(i));
+        }
+        // One shared timestamp, so paging has to fall back on the id
+        stamped = Instant.now().minus(1, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS);
+        organisationRepository.updateAddressByIdIn(ids, "Same Street", stamped);
+    }
+    
+    @Test
+    void pagesThroughEqualTimestampsByIdWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        String watermark = null;
+        OrganisationDeltaDto page;
+        int pages = 0;
+        do {
+            page = syncService.getChanges(watermark, 2);
+            page.getChanged().forEach(organisation -> seen.add(organisation.getId()));
+            watermark = page.getWatermark();
+            pages++;
+        } while (page.isHasMore());
+        
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(syncService.getChanges(watermark, 2).getChanged()).isEmpty();
+    }
+    
+    @Test
+    void deletesAreReportedOnceAfterTheWatermark() {
+        String watermark = drain(null);
+        
+        List<Long> deleted = ids.subList(0, 2);
+        Instant deletedAt = OrganisationSyncWatermark.decode(watermark).deletedAt().plus(1, ChronoUnit.MICROS);
+        organisationTombstoneRepository.insertForOrganisations(deleted, deletedAt);
+        organisationHRRepository.deleteByOrganisationIdIn(deleted);
+        organisationRepository.deleteByIdIn(deleted);
+        
+        OrganisationDeltaDto delta = syncService.getChanges(watermark, 10);
+        assertThat(delta.getDeleted()).containsExactlyElementsOf(deleted);
+        assertThat(delta.getChanged()).isEmpty();
+        assertThat(syncService.getChanges(delta.getWatermark(), 10).getDeleted()).isEmpty();
+    }
+    
+    @Test
+    void openWriteHoldsTheScanBoundBack() {
+        String watermark = drain(null);
+        
+        // The test transaction stays open, like a slow bulk update that hasn't committed yet
+        organisationWriteTracker.begin();
+        Instant writeStarted = Instant.now();
+        organisationRepository.updateAddressByIdIn(List.of(ids.get(0)), "Moved", writeStarted);
+        
+        OrganisationDeltaDto delta = syncService.getChanges(watermark, 10);
+        assertThat(delta.getChanged()).isEmpty();
+        assertThat(OrganisationSyncWatermark.decode(delta.getWatermark()).changedAt()).isBefore(writeStarted);
+    }
+    
+    @Test
+    void watermarkNeverMovesBackwards() {
+        Instant ahead = Instant.now().plus(1, ChronoUnit.HOURS);
+        String since = new OrganisationSyncWatermark(ahead, 7, ahead, 9).encode();
+        
+        OrganisationDeltaDto delta = syncService.getChanges(since, 10);
+        
+        assertThat(delta.getChanged()).isEmpty();
+        assertThat(delta.getWatermark()).isEqualTo(since);
+    }
+    
+    private String drain(String watermark) {
+        OrganisationDeltaDto page;
+        do {
+            page = syncService.getChanges(watermark, 10);
+            assertThat(page.getChanged()).extracting(OrganisationResponseDto::getId).isSubsetOf(ids);
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+        return watermark;
+    }
+    
+    private Long persist(int i) {
+        Organisation organisation = new Organisation();
+        organisation.setName("Org " + i);
+        organisation.setAddress("Street " + i);
+        
+        OrganisationHR organisationHR = new OrganisationHR();
+        organisationHR.setFirstName("First" + i);
+        organisationHR.setLastName("Last" + i);
+        organisationHR.setEmail("hr" + i + "@org" + i + ".com");
+        organisationHR.setContactNumber("9876543210");
+        organisationHR.setOrganisation(organisation);
+        organisation.setOrganisationHR(organisationHR);
+        return entityManager.persistAndGetId(organisation, Long.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.repository.OrganisationCollectionRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs real commits and rollbacks, so not inside the usual test transaction.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrganisationWriteTrackerTest {
+    
+    @Autowired
+    private OrganisationCollectionRevisionRepository organisationCollectionRevisionRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private OrganisationWriteTracker organisationWriteTracker;
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        organisationCollectionRevisionRepository.deleteAll();
+        organisationWriteTracker = new OrganisationWriteTracker(organisationCollectionRevisionRepository);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Test
+    void revisionRisesOncePerCommittedWrite() {
+        assertThat(organisationCollectionRevisionRepository.findRevision()).isEmpty();
+        
+        transactionTemplate.executeWithoutResult(status -> organisationWriteTracker.begin());
+        assertThat(organisationCollectionRevisionRepository.findRevision()).contains(1L);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            organisationWriteTracker.begin();
+            organisationWriteTracker.begin();
+        });
+        assertThat(organisationCollectionRevisionRepository.findRevision()).contains(2L);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            organisationWriteTracker.begin();
+            status.setRollbackOnly();
+        });
+        assertThat(organisationCollectionRevisionRepository.findRevision()).contains(2L);
+    }
+    
+    @Test
+    void scanBoundIsHeldOnlyWhileTheWriteIsOpen() {
+        Instant bound = Instant.now().plusSeconds(60);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            organisationWriteTracker.begin();
+            assertThat(organisationWriteTracker.safeScanBound(bound)).isBefore(Instant.now());
+        });
+        
+        assertThat(organisationWriteTracker.safeScanBound(bound)).isEqualTo(bound);
+    }
+}
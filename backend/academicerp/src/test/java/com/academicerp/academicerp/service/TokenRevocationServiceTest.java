@@ -0,0 +1,47 @@
+package com.academicerp.academicerp.service;
+
+import com.academicerp.academicerp.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class TokenRevocationServiceTest {
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Test
+    void revocationOnAnotherNodeIsPickedUpByThePoll() {
+        TokenRevocationService nodeA = node();
+        TokenRevocationService nodeB = node();
+        Claims claims = Jwts.claims()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("employee@example.com")
+                .setExpiration(Date.from(Instant.now().plus(15, ChronoUnit.MINUTES)));
+        
+        nodeA.revoke(claims);
+        assertThat(nodeA.isRevoked(claims.getId())).isTrue();
+        assertThat(nodeB.isRevoked(claims.getId())).isFalse();
+        
+        nodeB.pollRevocations();
+        assertThat(nodeB.isRevoked(claims.getId())).isTrue();
+    }
+    
+    private TokenRevocationService node() {
+        TokenRevocationService service = new TokenRevocationService(
+                revokedTokenRepository, new SimpleMeterRegistry(), 1_000, 0.001);
+        service.loadRevokedTokens();
+        return service;
+    }
+}
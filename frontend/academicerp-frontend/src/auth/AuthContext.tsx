@@ -83,6 +83,20 @@ export const AuthProvider: React.FC<{ children: React.ReactNode }> = ({ children
     }
 
     const logout = () => {
+        try {
+            const refreshToken = localStorage.getItem('refresh_token')
+            if (token || refreshToken) {
+                // Revoke both tokens server-side; logging out locally must not wait on it
+                fetch(`${BACKEND_URL}/api/auth/logout`, {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({ token, refreshToken }),
+                }).catch(() => undefined)
+            }
+            localStorage.removeItem('refresh_token')
+        } catch {
+            // ignore
+        }
         setTokenState(null)
         setIsOutreachState(null)
         setUserEmailState(null)
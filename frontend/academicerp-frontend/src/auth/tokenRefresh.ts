@@ -0,0 +1,59 @@
+const BACKEND_URL = (import.meta.env.VITE_BACKEND_URL as string) || 'http://localhost:8080'
+
+// Renew a little before the access token actually expires
+const EXPIRY_SKEW_MS = 30_000
+
+let pendingRefresh: Promise<string | null> | null = null
+
+function tokenExpiry(token: string): number | null {
+    try {
+        const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')))
+        return typeof payload.exp === 'number' ? payload.exp * 1000 : null
+    } catch {
+        return null
+    }
+}
+
+async function refreshAccessToken(): Promise<string | null> {
+    const refreshToken = localStorage.getItem('refresh_token')
+    if (!refreshToken) return null
+
+    const res = await fetch(`${BACKEND_URL}/api/auth/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+    })
+    if (!res.ok) return null
+
+    const data = await res.json()
+    localStorage.setItem('auth_token', data.token)
+    localStorage.setItem('refresh_token', data.refreshToken)
+    localStorage.setItem('is_outreach', JSON.stringify(Boolean(data.outreach)))
+    return data.token as string
+}
+
+/**
+ * Returns the stored access token, trading the refresh token for a new one first
+ * when the access token is about to expire. Concurrent callers share one refresh.
+ */
+export async function getValidAccessToken(): Promise<string | null> {
+    let token: string | null = null
+    try {
+        token = localStorage.getItem('auth_token')
+    } catch {
+        return null
+    }
+    if (!token) return null
+
+    const expiry = tokenExpiry(token)
+    if (expiry === null || expiry - EXPIRY_SKEW_MS > Date.now()) return token
+
+    if (!pendingRefresh) {
+        pendingRefresh = refreshAccessToken()
+            .catch(() => null)
+            .finally(() => {
+                pendingRefresh = null
+            })
+    }
+    return (await pendingRefresh) ?? token
+}
@@ -17,10 +17,14 @@ const AuthCallback: React.FC = () => {
             const state = searchParams.get('state')
             const errorParam = searchParams.get('error')
             const isOutreachParam = searchParams.get('isOutreach')
+            const refreshToken = searchParams.get('refreshToken')
 
             if (token) {
                 // Token provided directly by backend
                 setToken(token)
+                if (refreshToken) {
+                    localStorage.setItem('refresh_token', refreshToken)
+                }
                 
                 // Parse isOutreach parameter
                 const isOutreach = isOutreachParam === 'true'
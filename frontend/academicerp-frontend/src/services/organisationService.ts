@@ -1,15 +1,12 @@
 import type { Organisation } from '../types/organisation'
+import { getValidAccessToken } from '../auth/tokenRefresh'
 
 const BACKEND_URL = (import.meta.env.VITE_BACKEND_URL as string) || 'http://localhost:8080'
 const BASE = `${BACKEND_URL.replace(/\/$/, '')}/api/organisations`
 
-function getAuthHeader(): Record<string, string> {
-    try {
-        const token = localStorage.getItem('auth_token')
-        return token ? { Authorization: `Bearer ${token}` } : {}
-    } catch {
-        return {}
-    }
+async function getAuthHeader(): Promise<Record<string, string>> {
+    const token = await getValidAccessToken()
+    return token ? { Authorization: `Bearer ${token}` } : {}
 }
 
 async function handleResponse<T>(res: Response): Promise<T> {
@@ -30,7 +27,7 @@ export const OrganisationService = {
             method: 'GET',
             headers: {
                 'Content-Type': 'application/json',
-                ...getAuthHeader(),
+                ...(await getAuthHeader()),
             },
         })
         return handleResponse<Organisation[]>(res)
@@ -41,7 +38,7 @@ export const OrganisationService = {
             method: 'GET',
             headers: {
                 'Content-Type': 'application/json',
-                ...getAuthHeader(),
+                ...(await getAuthHeader()),
             },
         })
         return handleResponse<Organisation>(res)
@@ -52,7 +49,7 @@ export const OrganisationService = {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
-                ...getAuthHeader(),
+                ...(await getAuthHeader()),
             },
             body: JSON.stringify(payload),
         })
@@ -64,7 +61,7 @@ export const OrganisationService = {
             method: 'PUT',
             headers: {
                 'Content-Type': 'application/json',
-                ...getAuthHeader(),
+                ...(await getAuthHeader()),
             },
             body: JSON.stringify(payload),
         })
@@ -76,7 +73,7 @@ export const OrganisationService = {
             method: 'DELETE',
             headers: {
                 'Content-Type': 'application/json',
-                ...getAuthHeader(),
+                ...(await getAuthHeader()),
             },
         })
         await handleResponse<void>(res)
@@ -87,7 +84,7 @@ export const OrganisationService = {
             method: 'GET',
             headers: {
                 'Content-Type': 'application/json',
-                ...getAuthHeader(),
+                ...(await getAuthHeader()),
             },
         })
         return handleResponse<Organisation[]>(res)